@@ -0,0 +1,136 @@
+package gameHelpers;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import model.NPC;
+import model.NPCNoTest;
+import model.Person;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    /**
+     * Compares checking whether a tile is blocked with the collision grid and the NPC index against
+     * the old check, which read the cell of the collision layer and then scanned the whole NPC list.
+     * A tenth of the tiles of the map are walls and the NPCs stand on random free tiles. The map
+     * grows with the number of NPCs so there are always free tiles around them.
+     *
+     * @param npcs The number of NPCs on the map
+     * @param layer The collision layer the old check reads
+     * @param npcList The NPC list the old check scans
+     * @param grid The collision grid of the layer
+     * @param index The NPCs hashed by tile, with the cell size used by GameUpdater
+     * @param queries The tiles checked, x and y interleaved, half of them next to an NPC
+     */
+    private static final int CELL_SIZE=8;
+    private static final int QUERIES=4096;
+    private static final float WALLS=0.1f;
+
+    @Param({"10", "1000", "100000"})
+    public int npcs;
+
+    private TiledMapTileLayer layer;
+    private ArrayList<NPC> npcList;
+    private CollisionGrid grid;
+    private SpatialIndex<NPC> index;
+    private int[] queries;
+    private int next=0;
+
+    @Setup
+    public void setUp() {
+        HeadlessGdx.start();
+        Random random=new Random(42);
+
+        int size=Math.max(64,(int) Math.ceil(Math.sqrt(npcs*4.0)));
+        layer=new TiledMapTileLayer(size,size,16,16);
+        boolean[] taken=new boolean[size*size];
+        for (int i=0;i<taken.length;i++){
+            if (random.nextFloat()<WALLS){
+                layer.setCell(i%size,i/size,new TiledMapTileLayer.Cell());
+                taken[i]=true;
+            }
+        }
+        grid=CollisionGrid.fromLayer(layer);
+
+        npcList=new ArrayList<>(npcs);
+        index=new SpatialIndex<>(CELL_SIZE);
+        while (npcList.size()<npcs){
+            int tile=random.nextInt(taken.length);
+            if (taken[tile]){
+                continue;
+            }
+            taken[tile]=true;
+            NPC npc=new NPCNoTest(tile%size,tile/size,"People/Secundarios/Character.png","npc","");
+            npcList.add(npc);
+            index.add(npc);
+        }
+
+        //Half of the checks are the tile next to an NPC, like the player walking around them
+        queries=new int[QUERIES*2];
+        for (int i=0;i<QUERIES;i++){
+            if (i%2==0){
+                NPC npc=npcList.get(random.nextInt(npcs));
+                queries[i*2]=(int) npc.getX()+1;
+                queries[i*2+1]=(int) npc.getY();
+            }else{
+                queries[i*2]=random.nextInt(size);
+                queries[i*2+1]=random.nextInt(size);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (NPC npc: npcList){
+            npc.dispose();
+        }
+        TextureCache.clear();
+    }
+
+    @Benchmark
+    public boolean layerAndList() {
+        float x=queries[next];
+        float y=queries[next+1];
+        next=(next+2)%queries.length;
+
+        boolean npcNext=false;
+        TiledMapTileLayer.Cell cell=layer.getCell((int) x,(int) y);
+        if (cell==null){
+            for (Person p: npcList){
+                if (p.getX()==x && p.getY()==y){
+                    npcNext=true;
+                }
+            }
+        }
+        return cell!=null || npcNext;
+    }
+
+    @Benchmark
+    public boolean gridAndIndex() {
+        float x=queries[next];
+        float y=queries[next+1];
+        next=(next+2)%queries.length;
+
+        return grid.isBlocked((int) x,(int) y) || index.get(x,y)!=null;
+    }
+}
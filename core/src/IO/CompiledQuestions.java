@@ -0,0 +1,255 @@
+package IO;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import questionTypes.DropDownQuestion;
+import questionTypes.FillInTheGapQuestion;
+import questionTypes.MultipleChoiceQuestion;
+import questionTypes.Question;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class CompiledQuestions {
+
+    /**
+     * Reads the question bank compiled by QuestionCompiler. The bank is memory-mapped and only its small
+     * test table is read when it is opened. A question is decoded the first time it is got, from its
+     * record and the strings it uses, and kept afterwards. decodeTest decodes a whole test at once, which
+     * the question bank does on its worker thread, and getQuestions returns a view that decodes on demand.
+     * Decoding reads the bank without moving its position, and decoded questions are published through an
+     * atomic array, so questions can be got from any thread. They are shared, so they must not be modified.
+     *
+     * @param buffer The mapped bank
+     * @param tests The type tag, first question id and number of questions of each test, by test number
+     * @param questionIndex The position of the offsets of the records
+     * @param stringIndex The position of the offsets of the strings
+     * @param stringData The position of the first string
+     * @param records The position of the first record
+     * @param decoded The questions decoded so far, by id, null for the ones not decoded yet
+     * @param decodedCount The number of questions decoded so far
+     */
+    public static final String EXTENSION=".qbank";
+    public static final String PATH="Questions/questions"+EXTENSION;
+
+    //The header of the bank and the type tags of its tests, written by QuestionCompiler in the tools source set
+    public static final int MAGIC=0x51424E4B; //"QBNK"
+    public static final int VERSION=1;
+    public static final byte MULTIPLE_CHOICE=1;
+    public static final byte DROP_DOWN=2;
+    public static final byte FILL_IN_THE_GAP=3;
+
+    private final ByteBuffer buffer;
+    private final HashMap<Integer, int[]> tests=new HashMap<>();
+    private final int questionIndex;
+    private final int stringIndex;
+    private final int stringData;
+    private final int records;
+    private final AtomicReferenceArray<Question> decoded;
+    private final AtomicInteger decodedCount=new AtomicInteger();
+
+    /**
+     * Opens a bank file, memory-mapped if it is a real file.
+     */
+    public static CompiledQuestions open(FileHandle file) {
+        return new CompiledQuestions(MappedFiles.read(file));
+    }
+
+    /**
+     * Reads the test table of a bank.
+     *
+     * @param buffer The whole bank
+     */
+    public CompiledQuestions(ByteBuffer buffer) {
+        this.buffer=buffer;
+        if (buffer.getInt(0)!=MAGIC){
+            throw new GdxRuntimeException("Not a compiled question bank");
+        }
+        int version=buffer.getInt(4);
+        if (version!=VERSION){
+            throw new GdxRuntimeException("The question bank was compiled with version "+version+" of the format, run the compileQuestions task again");
+        }
+
+        int position=8;
+        int testCount=buffer.getInt(position);
+        position+=4;
+        for (int i=0;i<testCount;i++){
+            int number=buffer.getInt(position);
+            int type=buffer.get(position+4);
+            int first=buffer.getInt(position+5);
+            int count=buffer.getInt(position+9);
+            tests.put(number,new int[]{type,first,count});
+            position+=13;
+        }
+
+        int questionCount=buffer.getInt(position);
+        questionIndex=position+4;
+        position=questionIndex+questionCount*4;
+
+        int stringCount=buffer.getInt(position);
+        stringIndex=position+4;
+        position=stringIndex+stringCount*4;
+        int stringLength=buffer.getInt(position);
+        stringData=position+4;
+        records=stringData+stringLength;
+
+        decoded=new AtomicReferenceArray<>(questionCount);
+    }
+
+    public boolean contains(int testNumber) {
+        return tests.containsKey(testNumber);
+    }
+
+    /**
+     * Returns the type of a test, one of the types of QuestionBank.
+     */
+    public String getType(int testNumber) {
+        switch (test(testNumber)[0]){
+            case MULTIPLE_CHOICE:
+                return QuestionBank.MULTIPLE_CHOICE;
+            case DROP_DOWN:
+                return QuestionBank.DROP_DOWN;
+            default:
+                return QuestionBank.FILL_IN_THE_GAP;
+        }
+    }
+
+    /**
+     * Returns the questions of a test, each decoded when it is first got.
+     *
+     * @param testNumber The number of the test
+     * @return A list of the questions of the test, with the type of question of the test
+     */
+    public List<Question> getQuestions(int testNumber) {
+        int[] test=test(testNumber);
+        final int first=test[1];
+        final int count=test[2];
+        return new AbstractList<Question>() {
+            @Override
+            public Question get(int index) {
+                if (index<0 || index>=count){
+                    throw new IndexOutOfBoundsException("Question "+index+" of "+count);
+                }
+                return getQuestion(first+index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Decodes every question of a test that was not decoded yet and returns them.
+     *
+     * @param testNumber The number of the test
+     * @return An unmodifiable list of the questions of the test, with the type of question of the test
+     */
+    public List<Question> decodeTest(int testNumber) {
+        int[] test=test(testNumber);
+        ArrayList<Question> questions=new ArrayList<>(test[2]);
+        for (int i=0;i<test[2];i++){
+            questions.add(getQuestion(test[1]+i));
+        }
+        return Collections.unmodifiableList(questions);
+    }
+
+    /**
+     * Returns a question by id, decoding it if it was not decoded yet. Two threads may decode the same
+     * question at once, then only the first one is kept and both get it.
+     */
+    public Question getQuestion(int id) {
+        Question question=decoded.get(id);
+        if (question==null){
+            //The question is filled in before it is set, setting it publishes it whole to the other threads
+            question=decode(id);
+            if (decoded.compareAndSet(id,null,question)){
+                decodedCount.incrementAndGet();
+            }else{
+                question=decoded.get(id);
+            }
+        }
+        return question;
+    }
+
+    private Question decode(int id) {
+        int position=records+buffer.getInt(questionIndex+id*4);
+        int type=buffer.get(position);
+        String text=string(buffer.getInt(position+1));
+        position+=5;
+
+        if (type==MULTIPLE_CHOICE){
+            return new MultipleChoiceQuestion(text,
+                    string(buffer.getInt(position)),
+                    string(buffer.getInt(position+4)),
+                    string(buffer.getInt(position+8)),
+                    string(buffer.getInt(position+12)),
+                    string(buffer.getInt(position+16)));
+        }
+        if (type==DROP_DOWN){
+            int options=buffer.getShort(position);
+            int blanks=buffer.getShort(position+2+options*4);
+            DropDownQuestion question=new DropDownQuestion(text,blanks,options);
+            for (int i=0;i<options;i++){
+                question.addOption(string(buffer.getInt(position+2+i*4)));
+            }
+            position+=2+options*4+2;
+            for (int i=0;i<blanks;i++){
+                question.addAnswer(string(buffer.getInt(position+i*4)));
+            }
+            return question;
+        }
+        int blanks=buffer.getShort(position);
+        FillInTheGapQuestion question=new FillInTheGapQuestion(text,blanks);
+        for (int i=0;i<blanks;i++){
+            question.addAnswer(string(buffer.getInt(position+2+i*4)));
+        }
+        return question;
+    }
+
+    private String string(int id) {
+        int position=stringData+buffer.getInt(stringIndex+id*4);
+        byte[] bytes=new byte[buffer.getShort(position)&0xFFFF];
+        //A duplicate has its own position, so the bank is never moved
+        ByteBuffer data=buffer.duplicate();
+        data.position(position+2);
+        data.get(bytes);
+        return new String(bytes,StandardCharsets.UTF_8);
+    }
+
+    private int[] test(int testNumber) {
+        int[] test=tests.get(testNumber);
+        if (test==null){
+            throw new GdxRuntimeException("There is no test "+testNumber+" in the question bank");
+        }
+        return test;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public int getTestCount() {
+        return tests.size();
+    }
+
+    public int getQuestionCount() {
+        return decoded.length();
+    }
+
+    public int getDecodedCount() {
+        return decodedCount.get();
+    }
+
+    public int getSize() {
+        return buffer.capacity();
+    }
+}
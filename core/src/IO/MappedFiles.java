@@ -0,0 +1,43 @@
+package IO;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public final class MappedFiles {
+
+    /**
+     * Opens the binary files compiled at build time, like the compiled map and the question bank,
+     * memory-mapped when they are real files so only the pages that are read are loaded.
+     */
+    private MappedFiles() {
+    }
+
+    /**
+     * Memory-maps the file if it is a real file, or reads it at once if it is not, like an asset inside a jar.
+     *
+     * @param file The file to open
+     * @return The whole file, read-only if it is mapped
+     */
+    public static ByteBuffer read(FileHandle file) {
+        if (file.type()!=Files.FileType.Classpath){
+            File real=file.file();
+            if (real.isFile()){
+                try (RandomAccessFile input=new RandomAccessFile(real,"r")){
+                    //The mapping stays valid after the channel is closed
+                    FileChannel channel=input.getChannel();
+                    return channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+                } catch (IOException e) {
+                    throw new GdxRuntimeException("Could not map "+file,e);
+                }
+            }
+        }
+        return ByteBuffer.wrap(file.readBytes());
+    }
+}
@@ -0,0 +1,228 @@
+package IO;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import questionTypes.Question;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+public class QuestionBank {
+
+    /**
+     * Keeps the parsed questions of the tests, so the file of a test is parsed once however many times
+     * the test is taken. The questions of the tests used last are kept in least recently used order,
+     * up to the capacity. The questions of a test can be prefetched: its file is parsed on a worker
+     * thread and getting them later only waits if the parse has not finished yet.
+     * Must be used from the render thread, only the parsing runs on the worker thread.
+     * The questions returned are shared by every attempt at the test, so they must not be modified.
+     * When the compiled bank is there, nothing is parsed: prefetching a test decodes its questions from the
+     * bank on the worker thread instead.
+     *
+     * @param tests The type and the file name of each test, by test number, as read by ReadTests
+     * @param capacity The maximum number of tests whose questions are kept
+     * @param entries The parsed or parsing questions of the tests in least recently used order, by test number
+     * @param parser The worker thread that parses the prefetched tests
+     * @param compiled The compiled question bank, or null to parse the JSON files
+     */
+    public static final String MULTIPLE_CHOICE="MC";
+    public static final String DROP_DOWN="DD";
+    public static final String FILL_IN_THE_GAP="FG";
+
+    private final HashMap<Integer, ArrayList<String>> tests;
+    private final int capacity;
+
+    private final LinkedHashMap<Integer, Future<List<? extends Question>>> entries;
+    private final ExecutorService parser;
+    private final CompiledQuestions compiled;
+
+    private int hits=0;
+    private int misses=0;
+    private int waits=0;
+    private int prefetches=0;
+
+    /**
+     * Creates a question bank.
+     *
+     * @param tests The type and the file name of each test, by test number
+     * @param capacity The maximum number of tests whose questions are kept
+     * @param compiled The compiled question bank, or null to parse the JSON files of the tests
+     */
+    public QuestionBank(HashMap<Integer, ArrayList<String>> tests, final int capacity, CompiledQuestions compiled) {
+        this.tests=tests;
+        this.capacity=capacity;
+        this.compiled=compiled;
+        entries=new LinkedHashMap<Integer, Future<List<? extends Question>>>(16,0.75f,true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Future<List<? extends Question>>> eldest) {
+                return size()>capacity;
+            }
+        };
+        parser=Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread=new Thread(r,"QuestionParser");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Returns the questions of a test, parsing its file now if it was not parsed or prefetched before.
+     *
+     * @param testNumber The number of the test
+     * @return The questions of the test, with the type of question of the test
+     */
+    public List<? extends Question> get(int testNumber) {
+        Future<List<? extends Question>> entry=entries.get(testNumber);
+        if (entry==null){
+            misses+=1;
+            FutureTask<List<? extends Question>> task=new FutureTask<>(parse(testNumber));
+            task.run();
+            entry=task;
+            entries.put(testNumber,entry);
+        }else if (entry.isDone()){
+            hits+=1;
+        }else{
+            //Prefetched, but the worker thread has not finished yet
+            waits+=1;
+        }
+
+        try {
+            return entry.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException("Interrupted while parsing test "+testNumber,e);
+        } catch (ExecutionException e) {
+            //Do not keep the failure, the next get tries again
+            entries.remove(testNumber);
+            throw new GdxRuntimeException("Could not parse test "+testNumber,e.getCause());
+        }
+    }
+
+    /**
+     * Starts parsing the questions of a test in the background, if they are not parsed or parsing already.
+     * Numbers without a test, like the one after the last test, are ignored.
+     *
+     * @param testNumber The number of the test
+     */
+    public void prefetch(int testNumber) {
+        if (!tests.containsKey(testNumber) || entries.containsKey(testNumber)){
+            return;
+        }
+        prefetches+=1;
+        entries.put(testNumber,parser.submit(parse(testNumber)));
+    }
+
+    /**
+     * Returns true if the questions of a test can be got without waiting. If they are not parsed or
+     * parsing, because they were never prefetched or were evicted, they are prefetched.
+     *
+     * @param testNumber The number of the test
+     */
+    public boolean isReady(int testNumber) {
+        prefetch(testNumber);
+        Future<List<? extends Question>> entry=entries.get(testNumber);
+        return entry==null || entry.isDone();
+    }
+
+    /**
+     * Returns the type of a test, one of MULTIPLE_CHOICE, DROP_DOWN and FILL_IN_THE_GAP.
+     */
+    public String getType(int testNumber) {
+        return test(testNumber).get(0);
+    }
+
+    //Parses the file of a test with the reader of its type, or decodes its questions from the compiled bank
+    private Callable<List<? extends Question>> parse(final int testNumber) {
+        ArrayList<String> test=test(testNumber);
+        final String type=test.get(0);
+        final String fileName=test.get(1);
+        if (compiled!=null && compiled.contains(testNumber)){
+            return new Callable<List<? extends Question>>() {
+                @Override
+                public List<? extends Question> call() {
+                    long start=System.nanoTime();
+                    List<Question> questions=compiled.decodeTest(testNumber);
+                    Gdx.app.log("QuestionBank", "Decoded "+questions.size()+" questions of test "+testNumber+" on "
+                            +Thread.currentThread().getName()+" in "+(System.nanoTime()-start)/1000+" us");
+                    return questions;
+                }
+            };
+        }
+        return new Callable<List<? extends Question>>() {
+            @Override
+            public List<? extends Question> call() {
+                long start=System.nanoTime();
+                List<? extends Question> questions;
+                if (type.equals(MULTIPLE_CHOICE)){
+                    questions=ReadMultipleChoice.loadQuestions(fileName);
+                }else if (type.equals(DROP_DOWN)){
+                    questions=ReadDropDown.loadQuestions(fileName);
+                }else if (type.equals(FILL_IN_THE_GAP)){
+                    questions=ReadFillInTheGap.loadQuestions(fileName);
+                }else{
+                    throw new GdxRuntimeException("Unknown type "+type+" of test "+fileName);
+                }
+                Gdx.app.log("QuestionBank", "Parsed "+questions.size()+" questions of "+fileName+" on "
+                        +Thread.currentThread().getName()+" in "+(System.nanoTime()-start)/1000000+" ms");
+                return questions;
+            }
+        };
+    }
+
+    private ArrayList<String> test(int testNumber) {
+        ArrayList<String> test=tests.get(testNumber);
+        if (test==null){
+            throw new GdxRuntimeException("There is no test "+testNumber);
+        }
+        return test;
+    }
+
+    /**
+     * Stops the worker thread and forgets every parsed test.
+     */
+    public void dispose() {
+        parser.shutdownNow();
+        entries.clear();
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int getWaits() {
+        return waits;
+    }
+
+    public int getPrefetches() {
+        return prefetches;
+    }
+}
@@ -19,12 +19,21 @@ public class ReadDropDown {
      * @return An ArrayList of DropDownQuestion objects.
      */
     public static ArrayList<DropDownQuestion> loadQuestions(String fileName) {
+        return loadQuestions(Gdx.files.internal("Questions/"+fileName+".json"));
+    }
+
+    /**
+     * Loads drop-down questions from a JSON file handle.
+     *
+     * @param file The JSON file to load the questions from.
+     * @return The questions of the file.
+     */
+    public static ArrayList<DropDownQuestion> loadQuestions(FileHandle file) {
 
         //Create empty list of questions
         ArrayList<DropDownQuestion> questions= new ArrayList<>();
 
         //Open file as JSON
-        FileHandle file = Gdx.files.internal("Questions/"+fileName+".json");
         JsonReader jsonReader = new JsonReader();
         JsonValue baseValue = jsonReader.parse(file);
 
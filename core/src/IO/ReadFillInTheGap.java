@@ -18,10 +18,19 @@ public class ReadFillInTheGap {
      * @return An ArrayList of FillInTheGapQuestion objects loaded from the JSON file.
      */
     public static ArrayList<FillInTheGapQuestion> loadQuestions(String fileName) {
+        return loadQuestions(Gdx.files.internal("Questions/"+fileName+".json"));
+    }
+
+    /**
+     * Loads fill-in-the-gap questions from a JSON file handle.
+     *
+     * @param file The JSON file to load the questions from.
+     * @return The questions of the file.
+     */
+    public static ArrayList<FillInTheGapQuestion> loadQuestions(FileHandle file) {
 
         ArrayList<FillInTheGapQuestion> questions= new ArrayList<>();
 
-        FileHandle file = Gdx.files.internal("Questions/"+fileName+".json");
         JsonReader jsonReader = new JsonReader();
         JsonValue baseValue = jsonReader.parse(file);
 
@@ -17,12 +17,21 @@ public class ReadMultipleChoice {
      * @return An ArrayList of MultipleChoiceQuestion objects.
      */
     public static ArrayList<MultipleChoiceQuestion> loadQuestions(String fileName) {
+        return loadQuestions(Gdx.files.internal("Questions/"+fileName+".json"));
+    }
+
+    /**
+     * Loads multiple choice questions from a JSON file handle. Absolute handles need no Gdx.files, which the question compiler relies on.
+     *
+     * @param file The JSON file to load the questions from.
+     * @return The questions of the file.
+     */
+    public static ArrayList<MultipleChoiceQuestion> loadQuestions(FileHandle file) {
 
         //Create empty list of questions
         ArrayList<MultipleChoiceQuestion> questions= new ArrayList<>();
 
         //Open file as JSON
-        FileHandle file = Gdx.files.internal("Questions/"+fileName+".json");
         JsonReader jsonReader = new JsonReader();
         JsonValue baseValue = jsonReader.parse(file);
 
@@ -19,10 +19,20 @@ public class ReadTests {
      * @throws IOException If there is an error reading the file.
      */
     public static HashMap<Integer, ArrayList<String>> loadTests()
+    {
+        return loadTests(Gdx.files.internal("Questions/tests.json"));
+    }
+
+    /**
+     * Loads the tests from a JSON file handle.
+     *
+     * @param file The JSON file with the tests.
+     * @return The tests by test number, with the type and name of each test.
+     */
+    public static HashMap<Integer, ArrayList<String>> loadTests(FileHandle file)
     {
         //Create empty hashmap of tests
         HashMap<Integer, ArrayList<String>> tests= new HashMap<>();
-        FileHandle file = Gdx.files.internal("Questions/tests.json");
         JsonReader jsonReader = new JsonReader();
         JsonValue baseValue = jsonReader.parse(file);
 
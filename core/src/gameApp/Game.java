@@ -1,19 +1,39 @@
 package gameApp;
 
+import IO.CompiledQuestions;
+import IO.QuestionBank;
 import IO.ReadTests;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Preferences;
-import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.TimeUtils;
+import gameHelpers.AssetManifest;
+import gameHelpers.BinaryMapLoader;
+import gameHelpers.ScreenManager;
+import gameHelpers.SkinRegistry;
+import gameHelpers.SpriteAtlas;
+import gameHelpers.TextureCache;
+import gameHelpers.Warmup;
 import gameScreens.*;
+import questionTypes.DropDownQuestion;
+import questionTypes.FillInTheGapQuestion;
+import questionTypes.MultipleChoiceQuestion;
+import questionTypes.Question;
 import testScreens.DropDown;
 import testScreens.EndTestScreen;
 import testScreens.FillInTheGap;
 import testScreens.MultipleChoice;
+import testScreens.TestScreen;
 
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 public class Game extends com.badlogic.gdx.Game {
 
@@ -28,7 +48,19 @@ public class Game extends com.badlogic.gdx.Game {
   * @param endScreen The screen displayed when the player loses all their lives
   * @param endTestScreen The screen displayed when the player completes a test
   * @param actualTestScreen The screen where the current test is displayed
+  * @param testWarmup Builds the screen of the next test over several frames while its dialog is typing
+  * @param warmTestNumber The number of the test being built by the warm-up, 0 if there is none
+  * @param warmTestScreen The screen built by the warm-up, kept until the test starts or stops being the next one
+  * @param testRequestedAt The time ENTER started the current test in nanoseconds, 0 once its first frame is drawn
   * @param tests A HashMap
+  * @param questionBank The parsed questions of the tests, with the next test prefetched
+  * @param screens The live screens, reused when they are shown again and disposed when the game ends
+  * @param skins The skins shared by the screens, loaded once and disposed when the game ends
+  * @param assets The asset manager that loads the assets of the screens in the background, owns them and disposes them
+  * @param loadingScreen The screen shown while the assets of the next screen are loaded
+  * @param menuManifest The assets of the title and select screens
+  * @param gameManifest The assets of the game screen
+  * @param tickRate The number of simulation steps per second of the game screen, independent of the frame rate
   */
   
 	//Screens
@@ -37,11 +69,26 @@ public class Game extends com.badlogic.gdx.Game {
 	private SelectScreen selectScreen;
 	private GameOverScreen endScreen;
 	private WinScreen winScreen;
+	private LoadingScreen loadingScreen;
 	private EndTestScreen endTestScreen;
-	private ScreenAdapter actualTestScreen;
+	private TestScreen actualTestScreen;
+
+	//Test screen built ahead of time, and milliseconds of each frame its warm-up may take
+	private Warmup testWarmup;
+	private int warmTestNumber;
+	private TestScreen warmTestScreen;
+	private static final float WARMUP_BUDGET_MILLIS=4;
+
+	private long testRequestedAt;
+	private boolean testPrebuilt;
+	private static final float FRAME_MILLIS=1000f/60;
 
 	//Tests
 	private HashMap<Integer, ArrayList<String>> tests;
+	private QuestionBank questionBank;
+
+	//Tests whose parsed questions are kept, the next one, the last ones taken and a retry
+	private static final int QUESTION_BANK_CAPACITY=4;
 
 	private int nextTestNumber;
 	private int lives;
@@ -51,17 +98,60 @@ public class Game extends com.badlogic.gdx.Game {
 	private HashMap<String, String > savedData;
 	private ArrayList<String> keys;
 
+	private static final String MUSIC="Music/song.ogg";
 	private Music menuMusic;
 
+	private AssetManager assets;
+	private AssetManifest menuManifest;
+	private AssetManifest gameManifest;
+
+	private SkinRegistry skins;
+	private ScreenManager screens;
+
+	//Simulation steps per second used when no tick rate is given
+	public static final int DEFAULT_TICK_RATE=60;
+
+	private final int tickRate;
+
 	public Game() {
+		this(DEFAULT_TICK_RATE);
+	}
+
+	/**
+	 * Creates the game with the given tick rate for the simulation of the game screen.
+	 *
+	 * @param tickRate The number of simulation steps per second
+	 */
+	public Game(int tickRate) {
+		this.tickRate=tickRate;
 	}
 
 	/**
-  * Initializes the game by loading keys and data, setting up the title and select screens,
-  * loading tests, and playing menu music.
+  * Initializes the game by loading keys and data, loading tests, and queuing the assets of the title
+  * and select screens and the menu music. The loading screen is shown until they are loaded.
   */
 	@Override
 	public void create () {
+		//Every asset is loaded through the asset manager, the caches and the skins included
+		assets = new AssetManager();
+		assets.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
+		assets.setLoader(TiledMap.class, BinaryMapLoader.EXTENSION, new BinaryMapLoader(new InternalFileHandleResolver()));
+		TextureCache.setAssetManager(assets);
+		SpriteAtlas.setAssetManager(assets);
+
+		//Skins are shared by every screen, so they are loaded before the first one
+		skins = new SkinRegistry(assets);
+		screens = new ScreenManager();
+
+		loadingScreen = screens.obtain(LoadingScreen.class, new ScreenManager.Factory<LoadingScreen>() {
+			@Override
+			public LoadingScreen create() {
+				return new LoadingScreen(assets);
+			}
+		});
+		menuManifest = new AssetManifest().addAll(TitleScreen.manifest()).addAll(SelectScreen.manifest());
+		gameManifest = GameScreen.manifest();
+
 		//Load the previous game if there is one
 		loadKeys();
 		loadData();
@@ -79,22 +169,55 @@ public class Game extends com.badlogic.gdx.Game {
 			lives = 3;
 		}
 
-		//Initialize first screens
-		titleScreen = new TitleScreen(this,saved);
-		selectScreen = new SelectScreen(this);
-
 		//Read and load tests (In ReadTests class)
 		tests = ReadTests.loadTests();
+		questionBank = new QuestionBank(tests, QUESTION_BANK_CAPACITY, openCompiledQuestions());
+		questionBank.prefetch(nextTestNumber);
+
+		//Queue the background music, it stays loaded until the game ends
+		assets.load(MUSIC, Music.class);
+
+		//Set main screen to the title screen once its assets are loaded
+		showMenu();
 
-		//Load background music
-		menuMusic = Gdx.audio.newMusic(Gdx.files.internal("Music/song.ogg"));
-		menuMusic.setLooping(true);
-		menuMusic.play();
-		menuMusic.setVolume(0.3f);
+	}
 
-		//Set main screen to the title screen
-		setScreen(titleScreen);
+ /**
+  * Queues the assets of the title and select screens and shows the loading screen.
+  * When they are loaded the screens are built, the music starts if it was not playing and the title screen is shown.
+  */
+	private void showMenu(){
+		menuManifest.queue(assets);
+		loadingScreen.reset("TitleScreen", new Runnable() {
+			@Override
+			public void run() {
+				//Initialize first screens
+				titleScreen = screens.obtain(TitleScreen.class, new ScreenManager.Factory<TitleScreen>() {
+					@Override
+					public TitleScreen create() {
+						return new TitleScreen(Game.this,saved);
+					}
+				});
+				titleScreen.reset(saved);
+				selectScreen = screens.obtain(SelectScreen.class, new ScreenManager.Factory<SelectScreen>() {
+					@Override
+					public SelectScreen create() {
+						return new SelectScreen(Game.this);
+					}
+				});
+
+				//Background music
+				if (menuMusic==null){
+					menuMusic = assets.get(MUSIC, Music.class);
+					menuMusic.setLooping(true);
+					menuMusic.play();
+					menuMusic.setVolume(0.3f);
+				}
 
+				setScreen(titleScreen);
+			}
+		});
+		setScreen(loadingScreen);
 	}
 
 
@@ -103,8 +226,8 @@ public class Game extends com.badlogic.gdx.Game {
   * Otherwise, it sets the screen to the select screen.
   */
 	public void playerSelection(){
-		//Close title screen
-		titleScreen.dispose();
+		//Close title screen, it is not shown again once the game starts
+		screens.dispose(TitleScreen.class);
 		if (saved){
 			//If there is saved data start the game
 			startGame();
@@ -135,21 +258,44 @@ public class Game extends com.badlogic.gdx.Game {
 	}
 
  /**
-  * Initializes the game screen and sets it as the current screen.
-  * Disposes of the select screen.
+  * Queues the assets of the game screen and shows the loading screen. Once they are loaded
+  * it initializes the game screen and sets it as the current screen, and disposes of the select screen.
+  * The assets of the game screen are referenced once, from when they are queued until the screen is disposed.
   * @throws FileNotFoundException if the saved data file is not found
   */
 	private void initializeGameScreen() {
-		try {
-			//Create the GameScreen
-			gameScreen = new GameScreen(this, savedData, keys);
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
+		//A game started over does not reuse the screen of the previous one, nor its references to the assets
+		if (gameScreen != null) {
+			screens.dispose(GameScreen.class);
+			gameScreen = null;
+			gameManifest.unload(assets);
 		}
-		//Close the selection screen
-		selectScreen.dispose();
-		//Set main screen to game screen
-		setScreen(gameScreen);
+		gameManifest.queue(assets);
+		loadingScreen.reset("GameScreen", new Runnable() {
+			@Override
+			public void run() {
+				//Create the GameScreen
+				gameScreen = screens.obtain(GameScreen.class, new ScreenManager.Factory<GameScreen>() {
+					@Override
+					public GameScreen create() {
+						try {
+							return new GameScreen(Game.this, savedData, keys);
+						} catch (FileNotFoundException e) {
+							e.printStackTrace();
+							return null;
+						}
+					}
+				});
+				//Close the selection screen, its assets are not needed until the game is started over
+				screens.dispose(SelectScreen.class);
+				menuManifest.unload(assets);
+				//Free the skins only the menus were using, the game screen holds the ones it needs
+				skins.trim();
+				//Set main screen to game screen
+				setScreen(gameScreen);
+			}
+		});
+		setScreen(loadingScreen);
 	}
 
  /**
@@ -158,32 +304,138 @@ public class Game extends com.badlogic.gdx.Game {
   * @param testNumber The number of the test to start.
   */
 	public void startTest(int testNumber) {
-		//First we save data
-		saveData();
-
+		testRequestedAt = TimeUtils.nanoTime();
+		testPrebuilt = testNumber == warmTestNumber;
+
+		if (testPrebuilt) {
+			//The data was saved by the warm-up, and nothing moves while the dialog is open
+			testWarmup.finish();
+		} else {
+			//First we save data
+			saveData();
+		}
 
 		if (testNumber == nextTestNumber) {
-			ArrayList<String> test = tests.get(testNumber);
-			//If we are in the correct test
-			try {
-				//Create test screen depending on the type
-				if (test.get(0).equals("MC")) {
-					actualTestScreen = new MultipleChoice(this, test.get(1));
-				}
-				if (test.get(0).equals("DD")) {
-					actualTestScreen = new DropDown(this, test.get(1));
-				}
-				if (test.get(0).equals("FG")) {
-					actualTestScreen = new FillInTheGap(this, test.get(1));
-				}
-				//Set main screen to test screen
-				setScreen(actualTestScreen);
-
-			} catch (FileNotFoundException e) {
-				e.printStackTrace();
+			//If we are in the correct test, take the screen built while its dialog was typing, or build it now
+			if (testPrebuilt) {
+				actualTestScreen = warmTestScreen;
+				warmTestScreen = null;
+				discardWarmTest();
+			} else {
+				actualTestScreen = createTestScreen(testNumber);
 			}
+			//Set main screen to test screen
+			setScreen(actualTestScreen);
+			Gdx.app.log("Game", "Test "+testNumber+": switched in "+TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(testRequestedAt))+" ms");
+		} else {
+			testRequestedAt = 0;
+		}
+
+	}
+
+ /**
+  * Opens the compiled question bank, or returns null if it has not been compiled, so the JSON files are parsed instead.
+  */
+	private CompiledQuestions openCompiledQuestions() {
+		FileHandle file = Gdx.files.internal(CompiledQuestions.PATH);
+		if (!file.exists()) {
+			Gdx.app.log("Game", CompiledQuestions.PATH+" not found, run the compileQuestions task to compile the questions");
+			return null;
+		}
+		CompiledQuestions compiled = CompiledQuestions.open(file);
+		Gdx.app.log("Game", "Opened "+compiled.getQuestionCount()+" questions of "+compiled.getTestCount()+" tests ("+compiled.getSize()/1024+" KB)");
+		return compiled;
+	}
+
+ /**
+  * Starts building the screen of a test in the background while its dialog is typing, so ENTER only has to show it.
+  * The work is split in steps run over the next frames: saving the data, waiting for the questions to be parsed,
+  * building the screen and laying out its first question. Only the next test is built.
+  *
+  * @param testNumber The number of the test of the dialog
+  */
+	public void prepareTest(final int testNumber) {
+		if (testNumber != nextTestNumber || testNumber == warmTestNumber) {
+			return;
+		}
+		discardWarmTest();
+		warmTestNumber = testNumber;
+		testWarmup = new Warmup("Test "+testNumber, WARMUP_BUDGET_MILLIS)
+				.add(new Warmup.Step() {
+					@Override
+					public boolean run() {
+						saveData();
+						return true;
+					}
+				})
+				.add(new Warmup.Step() {
+					@Override
+					public boolean run() {
+						return questionBank.isReady(testNumber);
+					}
+				})
+				.add(new Warmup.Step() {
+					@Override
+					public boolean run() {
+						warmTestScreen = createTestScreen(testNumber);
+						return true;
+					}
+				})
+				.add(new Warmup.Step() {
+					@Override
+					public boolean run() {
+						warmTestScreen.prepare(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+						return true;
+					}
+				});
+	}
+
+ /**
+  * Stops the warm-up of a test and disposes the screen it built, if any.
+  */
+	private void discardWarmTest() {
+		if (warmTestScreen != null) {
+			warmTestScreen.dispose();
+			warmTestScreen = null;
 		}
+		testWarmup = null;
+		warmTestNumber = 0;
+	}
 
+ /**
+  * Builds the screen of a test depending on its type, with the questions of the question bank.
+  */
+	@SuppressWarnings("unchecked")
+	private TestScreen createTestScreen(int testNumber) {
+		String type = questionBank.getType(testNumber);
+		List<? extends Question> questions = questionBank.get(testNumber);
+		if (type.equals(QuestionBank.MULTIPLE_CHOICE)) {
+			return new MultipleChoice(this, (List<MultipleChoiceQuestion>) questions);
+		}
+		if (type.equals(QuestionBank.DROP_DOWN)) {
+			return new DropDown(this, (List<DropDownQuestion>) questions);
+		}
+		return new FillInTheGap(this, (List<FillInTheGapQuestion>) questions);
+	}
+
+ /**
+  * Renders the current screen, running the warm-up of the next test first if there is one.
+  * The first frame of a test logs the time since ENTER started it.
+  */
+	@Override
+	public void render() {
+		if (testWarmup != null) {
+			testWarmup.update();
+		}
+
+		super.render();
+
+		if (testRequestedAt != 0 && getScreen() == actualTestScreen) {
+			float millis = TimeUtils.timeSinceNanos(testRequestedAt)/1000000f;
+			Gdx.app.log("Game", "First test frame "+millis+" ms after ENTER, "+(testPrebuilt ? "prebuilt" : "built on ENTER")
+					+(millis <= FRAME_MILLIS ? ", within" : ", over")+" one frame");
+			testRequestedAt = 0;
+		}
 	}
 
  /**
@@ -195,21 +447,34 @@ public class Game extends com.badlogic.gdx.Game {
 	public void endTest(boolean passed, ArrayList<Integer> results){
 		if(passed){
 			//If the test was passed, add one to nextTestNumber
-			nextTestNumber += 1;
+			setNextTestNumber(nextTestNumber + 1);
 		}else{
 			//If not, take one life away
 			lives-=1;
 		}
 		//Close the test screen
 		actualTestScreen.dispose();
+		actualTestScreen = null;
 
 		if(lives > 0){
 			//If there are lives left, set main screen to end test screen
-			endTestScreen = new EndTestScreen(this, passed, results);
-			winScreen= new WinScreen(this);
+			//Only the screen that is shown is built, and it is reused after the next tests
 			if (nextTestNumber==14){
+				winScreen = screens.obtain(WinScreen.class, new ScreenManager.Factory<WinScreen>() {
+					@Override
+					public WinScreen create() {
+						return new WinScreen(Game.this);
+					}
+				});
 				setScreen(winScreen);
 			}else{
+				endTestScreen = screens.obtain(EndTestScreen.class, new ScreenManager.Factory<EndTestScreen>() {
+					@Override
+					public EndTestScreen create() {
+						return new EndTestScreen(Game.this);
+					}
+				});
+				endTestScreen.reset(passed, results);
 				setScreen(endTestScreen);
 			}
 
@@ -221,11 +486,9 @@ public class Game extends com.badlogic.gdx.Game {
 
 	
  /**
-  * Returns the game screen after disposing of the end test screen.
+  * Returns the game screen. The end test screen is kept for the next test.
   */
 	public void returnGame(){
-		//Close end test screen
-		endTestScreen.dispose();
 		//Set main screen to game screen
 		setScreen(gameScreen);
 	}
@@ -236,11 +499,16 @@ public class Game extends com.badlogic.gdx.Game {
 	public void gameOver() {
 		//Reset nextTestNumber and lives to initial values (1, 3)
 		lives = 3;
-		nextTestNumber =1;
+		setNextTestNumber(1);
 		//Save data
 		saveData();
 		//Set main screen to End screen
-		endScreen = new GameOverScreen(this);
+		endScreen = screens.obtain(GameOverScreen.class, new ScreenManager.Factory<GameOverScreen>() {
+			@Override
+			public GameOverScreen create() {
+				return new GameOverScreen(Game.this);
+			}
+		});
 		setScreen(endScreen);
 	}
 
@@ -298,40 +566,32 @@ public class Game extends com.badlogic.gdx.Game {
 	}
 
  /**
-  * Restarts the game by disposing of the end screen and setting the game screen as the current screen.
+  * Restarts the game by setting the game screen as the current screen. The end screens are kept in case they are shown again.
   */
 	public void restartGame(){
-		//Close the End screen
-		endScreen.dispose();
 		//Set main screen to game screen
 		setScreen(gameScreen);
 	}
 
  /**
-  * Ends the game by disposing of the end screen and the current game instance, and then exits the application.
+  * Ends the game by exiting the application, which disposes the game and its screens.
   */
 	public void endGame(){
-		//Close the end screen
-		endScreen.dispose();
-		//Close game
-		this.dispose();
-		//Close the app
+		//Close the app, which disposes the game once
 		Gdx.app.exit();
 	}
 
  /**
-  * Closes the game by disposing of the current screen and exiting the application.
+  * Closes the game by exiting the application, which disposes the game and its screens.
   */
 	public void closeGame(){
-		//Close game
-		this.dispose();
-		//Close the app
+		//Close the app, which disposes the game once
 		Gdx.app.exit();
 	}
 
  /**
-  * Resets the game state to the beginning, by setting saved to false and creating a new TitleScreen.
-  * The current screen is then set to the new TitleScreen.
+  * Resets the game state to the beginning, by setting saved to false and loading the title screen again.
+  * The current screen is then set to the title screen.
   */
 	public void startOver(){
 		//Put data saved to false
@@ -339,17 +599,33 @@ public class Game extends com.badlogic.gdx.Game {
 
 		//Set variables to initial values
 		lives=3;
-		nextTestNumber=1;
+		setNextTestNumber(1);
 
-		//Close the title screen, create a new one and set it as main screen
-		titleScreen.dispose();
-		titleScreen =new TitleScreen(this,saved);
-		setScreen(titleScreen);
+		//The title and select screens were closed when the game started, load them again without the saved game
+		showMenu();
 	}
 
 	@Override
 	public void dispose () {
-		saveData();
+		//There is nothing to save before the game screen exists, like when closing on the title screen
+		if (gameScreen != null) {
+			saveData();
+		}
+		//A test open at shutdown is not owned by the screen manager
+		if (actualTestScreen != null) {
+			actualTestScreen.dispose();
+			actualTestScreen = null;
+		}
+		discardWarmTest();
+		questionBank.dispose();
+		//Dispose every live screen first, they release their skins and textures
+		screens.dispose();
+		//Free every texture still held by the texture cache
+		TextureCache.clear();
+		SpriteAtlas.dispose();
+		skins.dispose();
+		//Dispose the assets still loaded, the music and the map included
+		assets.dispose();
 	}
 
 	/////////////////////////
@@ -360,6 +636,22 @@ public class Game extends com.badlogic.gdx.Game {
 		return lives;
 	}
 
+	public AssetManager getAssets() {
+		return assets;
+	}
+
+	public ScreenManager getScreens() {
+		return screens;
+	}
+
+	public SkinRegistry getSkins() {
+		return skins;
+	}
+
+	public int getTickRate() {
+		return tickRate;
+	}
+
 	public void setMusicVolume(float volume){
 		menuMusic.setVolume(volume/100);
 	}
@@ -372,5 +664,19 @@ public class Game extends com.badlogic.gdx.Game {
 		return nextTestNumber;
 	}
 
+	//Parses the questions of the new next test in the background, so they are ready when the player gets to it
+	private void setNextTestNumber(int testNumber){
+		nextTestNumber = testNumber;
+		//A screen built for another test will not be used
+		if (warmTestNumber != testNumber) {
+			discardWarmTest();
+		}
+		questionBank.prefetch(testNumber);
+	}
+
+	public QuestionBank getQuestionBank() {
+		return questionBank;
+	}
+
 
 }
@@ -0,0 +1,106 @@
+package gameHelpers;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+
+import java.util.ArrayList;
+
+public class AssetManifest {
+
+    /**
+     * The list of assets a screen needs before it can be built, declared by the screen itself.
+     * Queuing a manifest in the asset manager holds one reference to each of its assets until the
+     * manifest is unloaded, so the assets stay loaded while the screen that declared them is alive.
+     *
+     * @param assets The path and type of every asset of the manifest
+     * @param queued Whether the manifest has been queued and not unloaded since
+     */
+    private final ArrayList<AssetDescriptor<?>> assets=new ArrayList<>();
+    private boolean queued=false;
+
+    /**
+     * Adds an asset to the manifest.
+     *
+     * @param path The internal path of the asset
+     * @param type The class of the asset, which selects its loader
+     * @return This manifest, to chain calls
+     */
+    public <T> AssetManifest add(String path, Class<T> type) {
+        assets.add(new AssetDescriptor<>(path,type));
+        return this;
+    }
+
+    /**
+     * Adds every asset of another manifest to this one.
+     *
+     * @return This manifest, to chain calls
+     */
+    public AssetManifest addAll(AssetManifest manifest) {
+        assets.addAll(manifest.assets);
+        return this;
+    }
+
+    /**
+     * Queues every asset in the asset manager. They are loaded by its update calls.
+     */
+    public void queue(AssetManager manager) {
+        if (queued){
+            return;
+        }
+        for (AssetDescriptor<?> asset: assets){
+            manager.load(asset);
+        }
+        queued=true;
+    }
+
+    /**
+     * Releases the references of the manifest. Assets nothing else references are disposed.
+     */
+    public void unload(AssetManager manager) {
+        if (!queued){
+            return;
+        }
+        for (AssetDescriptor<?> asset: assets){
+            if (manager.contains(asset.fileName)){
+                manager.unload(asset.fileName);
+            }
+        }
+        queued=false;
+    }
+
+    /**
+     * Returns true if every asset of the manifest is loaded.
+     */
+    public boolean isLoaded(AssetManager manager) {
+        for (AssetDescriptor<?> asset: assets){
+            if (!manager.isLoaded(asset.fileName,asset.type)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Loads one asset right away, blocking until it is ready, and takes a reference to it.
+     * Used for the assets needed outside a manifest. If the asset is already loaded it only takes the reference.
+     * The reference must be released with AssetManager.unload.
+     *
+     * @param manager The asset manager
+     * @param path The internal path of the asset
+     * @param type The class of the asset
+     * @return The loaded asset
+     */
+    public static <T> T require(AssetManager manager, String path, Class<T> type) {
+        manager.load(path,type);
+        manager.finishLoadingAsset(path);
+        return manager.get(path,type);
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public int size() {
+        return assets.size();
+    }
+}
@@ -0,0 +1,236 @@
+package gameHelpers;
+
+import IO.MappedFiles;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class BinaryMapLoader extends AsynchronousAssetLoader<TiledMap, BinaryMapLoader.Parameters> {
+
+    /**
+     * Loads the maps compiled by MapCompiler into a TiledMap, so the renderer and the rest of the game
+     * use them like a map loaded by TmxMapLoader. Registered in the asset manager for the EXTENSION suffix.
+     *
+     * The file is memory-mapped when it is a real file and read at once when it is packed in a jar.
+     * Nothing is parsed: the tile layers are CompactTileLayers widened from the 16-bit cells of the file,
+     * the regions of the tiles are already resolved in the atlas pages packed by the compiler, and only
+     * the tiles the map uses are created. No cell objects are created at all. The collision bitset is handed to a CollisionGrid stored in the map properties, so the
+     * collision layer is never built.
+     *
+     * @param buffer The file of the map being loaded, read by getDependencies and released once the map is built
+     * @param images The atlas pages of the map being loaded, as asset paths
+     * @param map The map being built by loadAsync
+     */
+    public static final String EXTENSION=".imap";
+
+    private ByteBuffer buffer;
+    private String[] images;
+    private TiledMap map;
+
+    /**
+     * The filters of the tileset textures, like the parameters of TmxMapLoader.
+     */
+    public static class Parameters extends AssetLoaderParameters<TiledMap> {
+        public Texture.TextureFilter textureMinFilter=Texture.TextureFilter.Nearest;
+        public Texture.TextureFilter textureMagFilter=Texture.TextureFilter.Nearest;
+        public boolean generateMipMaps=false;
+    }
+
+    public BinaryMapLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    /**
+     * Reads the header and the image table. The atlas pages are loaded as textures before the map.
+     */
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+        buffer=MappedFiles.read(file);
+        if (buffer.getInt()!=MapFormat.MAGIC){
+            throw new GdxRuntimeException(fileName+" is not a compiled map");
+        }
+        int version=buffer.getInt();
+        if (version!=MapFormat.VERSION){
+            throw new GdxRuntimeException(fileName+" was compiled with version "+version+" of the format, run the compileMap task again");
+        }
+
+        TextureLoader.TextureParameter textureParameter=new TextureLoader.TextureParameter();
+        if (parameter!=null){
+            textureParameter.minFilter=parameter.textureMinFilter;
+            textureParameter.magFilter=parameter.textureMagFilter;
+            textureParameter.genMipMaps=parameter.generateMipMaps;
+        }else{
+            textureParameter.minFilter=Texture.TextureFilter.Nearest;
+            textureParameter.magFilter=Texture.TextureFilter.Nearest;
+        }
+
+        //Skip the rest of the header, it is read again when the map is built
+        buffer.position(6*4);
+        images=new String[buffer.getInt()];
+        Array<AssetDescriptor> dependencies=new Array<>();
+        for (int i=0;i<images.length;i++){
+            FileHandle image=file.parent().child(readString(buffer));
+            images[i]=image.path();
+            dependencies.add(new AssetDescriptor<>(image,Texture.class,textureParameter));
+        }
+        return dependencies;
+    }
+
+    /**
+     * Builds the map from the file read by getDependencies. It needs no GL context, so it runs on the loading thread.
+     */
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        long start=TimeUtils.nanoTime();
+        buffer.position(2*4);
+        int width=buffer.getInt();
+        int height=buffer.getInt();
+        int tileWidth=buffer.getInt();
+        int tileHeight=buffer.getInt();
+
+        map=new TiledMap();
+        MapProperties properties=map.getProperties();
+        properties.put("orientation","orthogonal");
+        properties.put("width",width);
+        properties.put("height",height);
+        properties.put("tilewidth",tileWidth);
+        properties.put("tileheight",tileHeight);
+
+        //Skip the image table, read by getDependencies
+        int imageCount=buffer.getInt();
+        for (int i=0;i<imageCount;i++){
+            readString(buffer);
+        }
+
+        //One tileset per atlas page, with only the tiles the map uses
+        TiledMapTileSet[] tilesets=new TiledMapTileSet[imageCount];
+        Texture[] textures=new Texture[imageCount];
+        for (int i=0;i<imageCount;i++){
+            textures[i]=manager.get(images[i],Texture.class);
+            tilesets[i]=new TiledMapTileSet();
+            tilesets[i].setName(images[i]);
+            map.getTileSets().addTileSet(tilesets[i]);
+        }
+        int tileCount=buffer.getInt();
+        TiledMapTile[] tiles=new TiledMapTile[tileCount+1];
+        for (int i=1;i<=tileCount;i++){
+            int gid=buffer.getInt();
+            int image=buffer.getShort();
+            TextureRegion region=new TextureRegion(textures[image],buffer.getShort(),buffer.getShort(),buffer.getShort(),buffer.getShort());
+            StaticTiledMapTile tile=new StaticTiledMapTile(region);
+            tile.setId(gid);
+            tile.setOffsetX(buffer.getShort());
+            tile.setOffsetY(buffer.getShort());
+            tilesets[image].putTile(gid,tile);
+            tiles[i]=tile;
+        }
+
+        //Tile layers, the cells of the file are already in the order of the compact layers
+        short[] packed=new short[width*height];
+        int layerCount=buffer.getInt();
+        for (int i=0;i<layerCount;i++){
+            String name=readString(buffer);
+            MapProperties layerProperties=new MapProperties();
+            readProperties(buffer,layerProperties);
+            boolean visible=buffer.get()!=0;
+            float opacity=buffer.getFloat();
+            buffer.asShortBuffer().get(packed);
+            buffer.position(buffer.position()+packed.length*2);
+
+            int[] cells=new int[packed.length];
+            for (int j=0;j<packed.length;j++){
+                int cell=packed[j]&0xFFFF;
+                if (cell!=0){
+                    int flips=cell<<MapFormat.CELL_FLIP_SHIFT;
+                    cells[j]=CompactTileLayer.packTiled(cell&MapFormat.CELL_TILE_MASK,
+                            (flips&MapFormat.FLIP_HORIZONTALLY)!=0,
+                            (flips&MapFormat.FLIP_VERTICALLY)!=0,
+                            (flips&MapFormat.FLIP_DIAGONALLY)!=0);
+                }
+            }
+            CompactTileLayer layer=new CompactTileLayer(width,height,tileWidth,tileHeight,cells,tiles);
+            layer.setName(name);
+            layer.getProperties().putAll(layerProperties);
+            layer.setVisible(visible);
+            layer.setOpacity(opacity);
+            map.getLayers().add(layer);
+        }
+
+        //Collision bitset
+        long[] bits=new long[buffer.getInt()];
+        buffer.asLongBuffer().get(bits);
+        buffer.position(buffer.position()+bits.length*8);
+        properties.put(CollisionGrid.PROPERTY,new CollisionGrid(width,height,bits));
+
+        //Object layers, with the triggers
+        int objectLayerCount=buffer.getInt();
+        for (int i=0;i<objectLayerCount;i++){
+            MapLayer layer=new MapLayer();
+            layer.setName(readString(buffer));
+            readProperties(buffer,layer.getProperties());
+            int objectCount=buffer.getInt();
+            for (int j=0;j<objectCount;j++){
+                String name=readString(buffer);
+                RectangleMapObject object=new RectangleMapObject(buffer.getFloat(),buffer.getFloat(),buffer.getFloat(),buffer.getFloat());
+                object.setName(name);
+                readProperties(buffer,object.getProperties());
+                layer.getObjects().add(object);
+            }
+            map.getLayers().add(layer);
+        }
+        Gdx.app.log("BinaryMapLoader", "Built "+fileName+" in "+TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(start))+" ms");
+    }
+
+    @Override
+    public TiledMap loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        TiledMap loaded=map;
+        map=null;
+        buffer=null;
+        images=null;
+        return loaded;
+    }
+
+    //Reads the typed properties written by MapCompiler
+    private static void readProperties(ByteBuffer buffer, MapProperties properties) {
+        int count=buffer.getInt();
+        for (int i=0;i<count;i++){
+            String name=readString(buffer);
+            byte type=buffer.get();
+            if (type==MapFormat.INT){
+                properties.put(name,buffer.getInt());
+            }else if (type==MapFormat.FLOAT){
+                properties.put(name,buffer.getFloat());
+            }else if (type==MapFormat.BOOLEAN){
+                properties.put(name,buffer.get()!=0);
+            }else{
+                properties.put(name,readString(buffer));
+            }
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes=new byte[buffer.getShort()&0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes,StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,139 @@
+package gameHelpers;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+public final class CollisionGrid {
+
+    /**
+     * The blocked tiles of the map packed in a bitset, one bit per tile in row-major order.
+     * It is built once when the map is loaded and never changes, so checking a tile is a single
+     * array read and a mask, with no cell objects involved.
+     * Compiled maps store the bitset already packed, in the map properties under PROPERTY.
+     *
+     * @param width The width of the map in tiles
+     * @param height The height of the map in tiles
+     * @param bits The bitset of blocked tiles, bit x + y*width is set if the tile (x, y) is blocked
+     */
+    public static final String PROPERTY="collisionGrid";
+
+    private final int width;
+    private final int height;
+    private final long[] bits;
+
+    /**
+     * Creates a collision grid from an already packed bitset.
+     *
+     * @param width The width of the map in tiles
+     * @param height The height of the map in tiles
+     * @param bits The bitset of blocked tiles, at least width*height bits long
+     */
+    public CollisionGrid(int width, int height, long[] bits) {
+        if (bits.length*64L<(long) width*height){
+            throw new IllegalArgumentException("The bitset is too small for a "+width+"x"+height+" map");
+        }
+        this.width=width;
+        this.height=height;
+        this.bits=bits.clone();
+    }
+
+    /**
+     * Returns the collision grid of a map: the one stored by a compiled map, or its collision layer packed.
+     * A map without a collision layer gets an empty grid, nothing in it is blocked.
+     *
+     * @param map The map
+     * @return The collision grid of the map
+     * @throws GdxRuntimeException If the collision layer is not a tile layer
+     */
+    public static CollisionGrid of(TiledMap map) {
+        CollisionGrid grid=map.getProperties().get(PROPERTY,CollisionGrid.class);
+        if (grid!=null){
+            return grid;
+        }
+        MapLayer layer=LayerRole.find(map.getLayers(),LayerRole.COLLISION);
+        if (layer==null){
+            //Nothing is blocked in a map without a collision layer
+            int width=map.getProperties().get("width",0,Integer.class);
+            int height=map.getProperties().get("height",0,Integer.class);
+            return new CollisionGrid(width,height,new long[(width*height+63)/64]);
+        }
+        if (layer instanceof CompactTileLayer){
+            return fromLayer((CompactTileLayer) layer);
+        }
+        if (layer instanceof TiledMapTileLayer){
+            return fromLayer((TiledMapTileLayer) layer);
+        }
+        throw new GdxRuntimeException("The collision layer \""+layer.getName()+"\" is not a tile layer");
+    }
+
+    /**
+     * Packs a compact collision layer: every tile that is not empty is blocked.
+     *
+     * @param layer The collision layer of the map
+     * @return The collision grid of the layer
+     */
+    public static CollisionGrid fromLayer(CompactTileLayer layer) {
+        int[] cells=layer.getCells();
+        long[] bits=new long[(cells.length+63)/64];
+        for (int index=0;index<cells.length;index++){
+            if (cells[index]!=0){
+                bits[index>>>6]|=1L<<(index&63);
+            }
+        }
+        return new CollisionGrid(layer.getWidth(),layer.getHeight(),bits);
+    }
+
+    /**
+     * Packs a collision layer: every tile with a cell is blocked.
+     *
+     * @param layer The collision layer of the map
+     * @return The collision grid of the layer
+     */
+    public static CollisionGrid fromLayer(TiledMapTileLayer layer) {
+        int width=layer.getWidth();
+        int height=layer.getHeight();
+        long[] bits=new long[(width*height+63)/64];
+        for (int y=0;y<height;y++){
+            for (int x=0;x<width;x++){
+                if (layer.getCell(x,y)!=null){
+                    int index=x+y*width;
+                    bits[index>>>6]|=1L<<(index&63);
+                }
+            }
+        }
+        return new CollisionGrid(width,height,bits);
+    }
+
+    /**
+     * Returns true if the tile is blocked. Tiles outside the map are not blocked.
+     *
+     * @param x The x-coordinate of the tile
+     * @param y The y-coordinate of the tile
+     */
+    public boolean isBlocked(int x, int y) {
+        if (x<0 || y<0 || x>=width || y>=height){
+            return false;
+        }
+        int index=x+y*width;
+        return (bits[index>>>6]&(1L<<(index&63)))!=0;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    //Returns a copy of the packed bitset
+    public long[] getBits() {
+        return bits.clone();
+    }
+}
@@ -0,0 +1,41 @@
+package gameHelpers;
+
+import model.Direction;
+
+public enum Command {
+
+    /**
+     * The actions the player can ask for, whatever device they come from.
+     * The four moves carry the direction they walk to, the other commands have no direction.
+     * INTERACT talks to the NPC in front of the player, CONFIRM and CANCEL close a dialog.
+     */
+    MOVE_UP(Direction.BACK),
+    MOVE_DOWN(Direction.FRONT),
+    MOVE_LEFT(Direction.LEFT),
+    MOVE_RIGHT(Direction.RIGHT),
+    INTERACT(null),
+    CONFIRM(null),
+    CANCEL(null);
+
+    private final Direction direction;
+
+    Command(Direction direction) {
+        this.direction=direction;
+    }
+
+    /**
+     * Returns true if the command moves the player.
+     */
+    public boolean isMove() {
+        return direction!=null;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    //Returns the direction of a move, or null if the command is not a move
+    public Direction getDirection() {
+        return direction;
+    }
+}
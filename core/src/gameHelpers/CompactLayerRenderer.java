@@ -0,0 +1,127 @@
+package gameHelpers;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.Rectangle;
+
+public class CompactLayerRenderer {
+
+    /**
+     * Draws compact tile layers with a batch, tile by tile, like OrthogonalTiledMapRenderer draws its layers.
+     * The visible rows are walked in order over the int array of the layer and each tile is looked up in
+     * the tile table, so no cell objects are touched. The vertices of a tile are built in a single
+     * reused array, with the same flips and rotations as the tiled map renderer.
+     *
+     * @param unitScale The world units per pixel
+     * @param vertices The vertices of the tile being drawn
+     */
+    private static final int VERTEX_SIZE=20;
+
+    private final float unitScale;
+    private final float[] vertices=new float[VERTEX_SIZE];
+
+    public CompactLayerRenderer(float unitScale) {
+        this.unitScale=unitScale;
+    }
+
+    /**
+     * Draws the tiles of a layer inside the view. The batch must be drawing.
+     *
+     * @param batch The batch to draw with
+     * @param layer The layer to draw
+     * @param viewBounds The visible area in world units
+     * @return The number of vertices submitted
+     */
+    public int render(Batch batch, CompactTileLayer layer, Rectangle viewBounds) {
+        if (!layer.isVisible()){
+            return 0;
+        }
+        Color batchColor=batch.getColor();
+        float color=Color.toFloatBits(batchColor.r,batchColor.g,batchColor.b,batchColor.a*layer.getOpacity());
+
+        int width=layer.getWidth();
+        float tileWidth=layer.getTileWidth()*unitScale;
+        float tileHeight=layer.getTileHeight()*unitScale;
+        float offsetX=layer.getRenderOffsetX()*unitScale;
+        float offsetY=-layer.getRenderOffsetY()*unitScale;
+
+        //Range of tiles inside the view, with one more tile around for offsets
+        int firstColumn=Math.max(0,(int)((viewBounds.x-offsetX)/tileWidth));
+        int lastColumn=Math.min(width,(int)((viewBounds.x+viewBounds.width+tileWidth-offsetX)/tileWidth));
+        int firstRow=Math.max(0,(int)((viewBounds.y-offsetY)/tileHeight));
+        int lastRow=Math.min(layer.getHeight()-1,(int)((viewBounds.y+viewBounds.height+tileHeight-offsetY)/tileHeight));
+
+        int[] cells=layer.getCells();
+        TiledMapTile[] tiles=layer.getTiles();
+        int submitted=0;
+        //Top to bottom, so tiles that overflow their cell overlap like in the tiled map renderer
+        for (int row=lastRow;row>=firstRow;row--){
+            float y=row*tileHeight+offsetY;
+            int index=row*width+firstColumn;
+            for (int column=firstColumn;column<lastColumn;column++,index++){
+                int cell=cells[index];
+                if (cell==0){
+                    continue;
+                }
+                TiledMapTile tile=tiles[cell&CompactTileLayer.TILE_MASK];
+                if (tile==null){
+                    continue;
+                }
+                TextureRegion region=tile.getTextureRegion();
+                float x1=column*tileWidth+offsetX+tile.getOffsetX()*unitScale;
+                float y1=y+tile.getOffsetY()*unitScale;
+                setVertices(region,cell,x1,y1,x1+region.getRegionWidth()*unitScale,y1+region.getRegionHeight()*unitScale,color);
+                batch.draw(region.getTexture(),vertices,0,VERTEX_SIZE);
+                submitted+=4;
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * Fills the vertices of a tile, applying the flips and then the rotation of its cell.
+     */
+    private void setVertices(TextureRegion region, int cell, float x1, float y1, float x2, float y2, float color) {
+        float[] v=vertices;
+        float u1=region.getU();
+        float v1=region.getV2();
+        float u2=region.getU2();
+        float v2=region.getV();
+
+        v[Batch.X1]=x1; v[Batch.Y1]=y1; v[Batch.C1]=color; v[Batch.U1]=u1; v[Batch.V1]=v1;
+        v[Batch.X2]=x1; v[Batch.Y2]=y2; v[Batch.C2]=color; v[Batch.U2]=u1; v[Batch.V2]=v2;
+        v[Batch.X3]=x2; v[Batch.Y3]=y2; v[Batch.C3]=color; v[Batch.U3]=u2; v[Batch.V3]=v2;
+        v[Batch.X4]=x2; v[Batch.Y4]=y1; v[Batch.C4]=color; v[Batch.U4]=u2; v[Batch.V4]=v1;
+
+        float temp;
+        if (CompactTileLayer.isFlipHorizontally(cell)){
+            temp=v[Batch.U1]; v[Batch.U1]=v[Batch.U3]; v[Batch.U3]=temp;
+            temp=v[Batch.U2]; v[Batch.U2]=v[Batch.U4]; v[Batch.U4]=temp;
+        }
+        if (CompactTileLayer.isFlipVertically(cell)){
+            temp=v[Batch.V1]; v[Batch.V1]=v[Batch.V3]; v[Batch.V3]=temp;
+            temp=v[Batch.V2]; v[Batch.V2]=v[Batch.V4]; v[Batch.V4]=temp;
+        }
+        switch (CompactTileLayer.rotationOf(cell)){
+            case TiledMapTileLayer.Cell.ROTATE_90:
+                temp=v[Batch.V1]; v[Batch.V1]=v[Batch.V2]; v[Batch.V2]=v[Batch.V3]; v[Batch.V3]=v[Batch.V4]; v[Batch.V4]=temp;
+                temp=v[Batch.U1]; v[Batch.U1]=v[Batch.U2]; v[Batch.U2]=v[Batch.U3]; v[Batch.U3]=v[Batch.U4]; v[Batch.U4]=temp;
+                break;
+            case TiledMapTileLayer.Cell.ROTATE_180:
+                temp=v[Batch.U1]; v[Batch.U1]=v[Batch.U3]; v[Batch.U3]=temp;
+                temp=v[Batch.U2]; v[Batch.U2]=v[Batch.U4]; v[Batch.U4]=temp;
+                temp=v[Batch.V1]; v[Batch.V1]=v[Batch.V3]; v[Batch.V3]=temp;
+                temp=v[Batch.V2]; v[Batch.V2]=v[Batch.V4]; v[Batch.V4]=temp;
+                break;
+            case TiledMapTileLayer.Cell.ROTATE_270:
+                temp=v[Batch.V1]; v[Batch.V1]=v[Batch.V4]; v[Batch.V4]=v[Batch.V3]; v[Batch.V3]=v[Batch.V2]; v[Batch.V2]=temp;
+                temp=v[Batch.U1]; v[Batch.U1]=v[Batch.U4]; v[Batch.U4]=v[Batch.U3]; v[Batch.U3]=v[Batch.U2]; v[Batch.U2]=temp;
+                break;
+            default:
+                break;
+        }
+    }
+}
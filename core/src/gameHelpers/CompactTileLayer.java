@@ -0,0 +1,262 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class CompactTileLayer extends MapLayer {
+
+    /**
+     * A tile layer stored as one int per tile instead of one Cell object per tile.
+     * Cells are row-major from the bottom row, like the cells of a TiledMapTileLayer. Each cell holds the
+     * index of its tile in the tile table of the map in its low bits, 0 for an empty tile, and its flips and
+     * rotation in the high bits. The layers of a map share one tile table.
+     * Walking a row is walking consecutive ints, and a 140x86 layer takes 48 KB however full it is.
+     *
+     * @param width The width of the layer in tiles
+     * @param height The height of the layer in tiles
+     * @param tileWidth The width of a tile in pixels
+     * @param tileHeight The height of a tile in pixels
+     * @param cells The packed cells, row-major from the bottom row
+     * @param tiles The tile table shared by the layers of the map, entry 0 is always null
+     */
+    public static final int FLIP_HORIZONTALLY=0x80000000;
+    public static final int FLIP_VERTICALLY=0x40000000;
+    public static final int ROTATION_SHIFT=28;
+    public static final int ROTATION_MASK=0x30000000;
+    public static final int TILE_MASK=0x0FFFFFFF;
+
+    private final int width;
+    private final int height;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int[] cells;
+    private final TiledMapTile[] tiles;
+
+    /**
+     * Creates a layer from packed cells.
+     *
+     * @param width The width of the layer in tiles
+     * @param height The height of the layer in tiles
+     * @param tileWidth The width of a tile in pixels
+     * @param tileHeight The height of a tile in pixels
+     * @param cells The packed cells, width*height of them, kept without copying
+     * @param tiles The tile table of the map, kept without copying
+     */
+    public CompactTileLayer(int width, int height, int tileWidth, int tileHeight, int[] cells, TiledMapTile[] tiles) {
+        if (cells.length!=width*height){
+            throw new IllegalArgumentException("A "+width+"x"+height+" layer needs "+width*height+" cells, not "+cells.length);
+        }
+        this.width=width;
+        this.height=height;
+        this.tileWidth=tileWidth;
+        this.tileHeight=tileHeight;
+        this.cells=cells;
+        this.tiles=tiles;
+    }
+
+    /**
+     * Packs a cell.
+     *
+     * @param tile The index of the tile in the tile table, 0 for an empty cell
+     * @param flipHorizontally Whether the tile is flipped horizontally
+     * @param flipVertically Whether the tile is flipped vertically
+     * @param rotation The counterclockwise rotation in quarter turns, as in TiledMapTileLayer.Cell
+     */
+    public static int pack(int tile, boolean flipHorizontally, boolean flipVertically, int rotation) {
+        if (tile==0){
+            return 0;
+        }
+        return (tile&TILE_MASK)
+                |(flipHorizontally ? FLIP_HORIZONTALLY : 0)
+                |(flipVertically ? FLIP_VERTICALLY : 0)
+                |((rotation&3)<<ROTATION_SHIFT);
+    }
+
+    /**
+     * Packs a cell from the flip flags of a Tiled gid, turning them into flips and a rotation the way TmxMapLoader does.
+     */
+    public static int packTiled(int tile, boolean flipHorizontally, boolean flipVertically, boolean flipDiagonally) {
+        if (!flipDiagonally){
+            return pack(tile,flipHorizontally,flipVertically,TiledMapTileLayer.Cell.ROTATE_0);
+        }
+        if (flipHorizontally && flipVertically){
+            return pack(tile,true,false,TiledMapTileLayer.Cell.ROTATE_270);
+        }
+        if (flipHorizontally){
+            return pack(tile,false,false,TiledMapTileLayer.Cell.ROTATE_270);
+        }
+        if (flipVertically){
+            return pack(tile,false,false,TiledMapTileLayer.Cell.ROTATE_90);
+        }
+        return pack(tile,false,true,TiledMapTileLayer.Cell.ROTATE_270);
+    }
+
+    public static int tileOf(int cell) {
+        return cell&TILE_MASK;
+    }
+
+    public static boolean isFlipHorizontally(int cell) {
+        return (cell&FLIP_HORIZONTALLY)!=0;
+    }
+
+    public static boolean isFlipVertically(int cell) {
+        return (cell&FLIP_VERTICALLY)!=0;
+    }
+
+    public static int rotationOf(int cell) {
+        return (cell&ROTATION_MASK)>>>ROTATION_SHIFT;
+    }
+
+    /**
+     * Replaces every TiledMapTileLayer of a map with a compact layer, in the same place and with the same
+     * name, visibility, opacity, offsets and properties. The cells of the old layers are left to the garbage collector.
+     * Maps loaded by BinaryMapLoader already have compact layers and are left as they are.
+     *
+     * @param map The map to compact
+     */
+    public static void compact(TiledMap map) {
+        ArrayList<MapLayer> layers=new ArrayList<>();
+        boolean found=false;
+        for (MapLayer layer: map.getLayers()){
+            layers.add(layer);
+            found|=layer instanceof TiledMapTileLayer;
+        }
+        if (!found){
+            return;
+        }
+
+        //Build the tile table shared by every layer
+        HashMap<TiledMapTile, Integer> indices=new HashMap<>();
+        ArrayList<TiledMapTile> table=new ArrayList<>();
+        table.add(null);
+        for (MapLayer layer: layers){
+            if (!(layer instanceof TiledMapTileLayer)){
+                continue;
+            }
+            TiledMapTileLayer tileLayer=(TiledMapTileLayer) layer;
+            for (int y=0;y<tileLayer.getHeight();y++){
+                for (int x=0;x<tileLayer.getWidth();x++){
+                    TiledMapTileLayer.Cell cell=tileLayer.getCell(x,y);
+                    if (cell!=null && cell.getTile()!=null && !indices.containsKey(cell.getTile())){
+                        indices.put(cell.getTile(),table.size());
+                        table.add(cell.getTile());
+                    }
+                }
+            }
+        }
+        TiledMapTile[] tiles=table.toArray(new TiledMapTile[0]);
+
+        int cellCount=0;
+        int intBytes=0;
+        for (int i=layers.size()-1;i>=0;i--){
+            map.getLayers().remove(i);
+        }
+        for (MapLayer layer: layers){
+            if (layer instanceof TiledMapTileLayer){
+                CompactTileLayer compact=fromLayer((TiledMapTileLayer) layer,indices,tiles);
+                cellCount+=compact.countCells();
+                intBytes+=compact.cells.length*4;
+                layer=compact;
+            }
+            map.getLayers().add(layer);
+        }
+        Gdx.app.log("CompactTileLayer", "Replaced "+cellCount+" cell objects with "+intBytes/1024+" KB of packed cells and "
+                +(tiles.length-1)+" tiles");
+    }
+
+    //Packs the cells of a layer with the given tile table
+    private static CompactTileLayer fromLayer(TiledMapTileLayer layer, HashMap<TiledMapTile, Integer> indices, TiledMapTile[] tiles) {
+        int width=layer.getWidth();
+        int height=layer.getHeight();
+        int[] cells=new int[width*height];
+        for (int y=0;y<height;y++){
+            for (int x=0;x<width;x++){
+                TiledMapTileLayer.Cell cell=layer.getCell(x,y);
+                if (cell!=null && cell.getTile()!=null){
+                    cells[x+y*width]=pack(indices.get(cell.getTile()),cell.getFlipHorizontally(),cell.getFlipVertically(),cell.getRotation());
+                }
+            }
+        }
+        CompactTileLayer compact=new CompactTileLayer(width,height,(int) layer.getTileWidth(),(int) layer.getTileHeight(),cells,tiles);
+        compact.setName(layer.getName());
+        compact.setVisible(layer.isVisible());
+        compact.setOpacity(layer.getOpacity());
+        compact.setOffsetX(layer.getOffsetX());
+        compact.setOffsetY(layer.getOffsetY());
+        compact.getProperties().putAll(layer.getProperties());
+        return compact;
+    }
+
+    /**
+     * Returns the packed cell of a tile, or 0 if it is empty or outside the layer.
+     */
+    public int getCell(int x, int y) {
+        if (x<0 || y<0 || x>=width || y>=height){
+            return 0;
+        }
+        return cells[x+y*width];
+    }
+
+    /**
+     * Returns the tile of a cell, or null if it is empty or outside the layer.
+     */
+    public TiledMapTile getTile(int x, int y) {
+        return tiles[getCell(x,y)&TILE_MASK];
+    }
+
+    /**
+     * Returns true if the tile is empty or outside the layer.
+     */
+    public boolean isEmpty(int x, int y) {
+        return getCell(x,y)==0;
+    }
+
+    /**
+     * Returns the number of tiles of the layer that are not empty.
+     */
+    public int countCells() {
+        int count=0;
+        for (int cell: cells){
+            if (cell!=0){
+                count+=1;
+            }
+        }
+        return count;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    //Returns the packed cells themselves, for renderers that walk them. They must not be modified
+    public int[] getCells() {
+        return cells;
+    }
+
+    //Returns the tile table itself, shared by the layers of the map. It must not be modified
+    public TiledMapTile[] getTiles() {
+        return tiles;
+    }
+}
@@ -0,0 +1,215 @@
+package gameHelpers;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Widget;
+import com.badlogic.gdx.utils.Align;
+
+import java.util.ArrayList;
+
+public class DialogText extends Widget {
+
+    /**
+     * Shows the text of a dialog as if it was being typed, a number of characters per second.
+     * When a text is shown it is split in pages that fit the size of the widget, and each page is laid
+     * out once into a font cache. Typing only changes how many glyphs of that cache are drawn,
+     * so a frame costs the same whatever the length of the text and nothing is laid out again.
+     *
+     * @param font The font of the text
+     * @param color The color of the text
+     * @param cache The glyphs of the current page, already placed
+     * @param layout The layout of the current page
+     * @param measure A layout used to find where the pages end
+     * @param pages The text of each page of the dialog
+     * @param page The index of the page being shown
+     * @param glyphs The number of glyphs of the current page
+     * @param shown The number of glyphs of the current page typed so far
+     * @param elapsed The time since the current page started being typed
+     * @param charsPerSecond The typing speed
+     */
+    private final BitmapFont font;
+    private final Color color;
+    private final BitmapFontCache cache;
+    private final GlyphLayout layout=new GlyphLayout();
+    private final GlyphLayout measure=new GlyphLayout();
+
+    private final ArrayList<String> pages=new ArrayList<>();
+    private int page=0;
+    private int glyphs=0;
+    private int shown=0;
+    private float elapsed=0;
+    private float charsPerSecond;
+
+    /**
+     * Creates an empty dialog text.
+     *
+     * @param style The style with the font and color of the text
+     * @param charsPerSecond The number of characters typed per second
+     */
+    public DialogText(Label.LabelStyle style, float charsPerSecond) {
+        font=style.font;
+        color=style.fontColor!=null ? new Color(style.fontColor) : new Color(Color.WHITE);
+        cache=font.newFontCache();
+        setCharsPerSecond(charsPerSecond);
+    }
+
+    /**
+     * Splits the text in pages that fit the widget and starts typing the first one.
+     * The widget must already have its final size.
+     *
+     * @param text The text of the dialog
+     */
+    public void show(String text) {
+        paginate(text);
+        showPage(0);
+    }
+
+    /**
+     * Splits the text in pages of as many whole words as fit the width and height of the widget.
+     * A word longer than a whole page gets its own page.
+     */
+    private void paginate(String text) {
+        pages.clear();
+        int maxLines=Math.max(1,(int)(getHeight()/font.getLineHeight()));
+
+        StringBuilder current=new StringBuilder();
+        int pageLength=0;
+        for (String word: text.split(" ")){
+            int start=current.length();
+            if (start>pageLength){
+                current.append(' ');
+            }
+            current.append(word);
+            measure.setText(font,current,pageLength,current.length(),color,getWidth(),Align.left,true,null);
+            if (lines(measure)>maxLines && start>pageLength){
+                //The word does not fit, it starts the next page
+                pages.add(current.substring(pageLength,start));
+                pageLength=start+1;
+            }
+        }
+        if (current.length()>pageLength || pages.isEmpty()){
+            pages.add(current.substring(Math.min(pageLength,current.length())));
+        }
+    }
+
+    //Returns the number of lines of a layout
+    private int lines(GlyphLayout glyphLayout) {
+        if (glyphLayout.runs.size==0){
+            return 0;
+        }
+        return Math.round((glyphLayout.height-font.getCapHeight())/font.getLineHeight())+1;
+    }
+
+    /**
+     * Lays out a page into the font cache and starts typing it.
+     */
+    private void showPage(int index) {
+        page=index;
+        layout.setText(font,pages.get(page),color,getWidth(),Align.left,true);
+        glyphs=0;
+        for (int i=0;i<layout.runs.size;i++){
+            glyphs+=layout.runs.get(i).glyphs.size;
+        }
+        cache.setText(layout,0,0);
+        shown=0;
+        elapsed=0;
+    }
+
+    /**
+     * Types the characters of the elapsed time.
+     *
+     * @param delta The time since the last update
+     */
+    public void update(float delta) {
+        if (shown==glyphs){
+            return;
+        }
+        elapsed+=delta;
+        shown=Math.min(glyphs,(int)(elapsed*charsPerSecond));
+    }
+
+    /**
+     * Shows the whole current page at once.
+     */
+    public void completePage() {
+        shown=glyphs;
+    }
+
+    /**
+     * Returns true if the current page has been typed completely.
+     */
+    public boolean isPageComplete() {
+        return shown==glyphs;
+    }
+
+    /**
+     * Returns true if the dialog has pages after the current one.
+     */
+    public boolean hasNextPage() {
+        return page+1<pages.size();
+    }
+
+    /**
+     * Starts typing the next page of the dialog. Does nothing if it is the last page.
+     */
+    public void nextPage() {
+        if (hasNextPage()){
+            showPage(page+1);
+        }
+    }
+
+    /**
+     * Removes the text.
+     */
+    public void clearText() {
+        pages.clear();
+        cache.clear();
+        page=0;
+        glyphs=0;
+        shown=0;
+        elapsed=0;
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        if (shown==0){
+            return;
+        }
+        //The page is centered vertically, like a label. Moving the cache does nothing if it is already there
+        cache.setPosition(getX(),getY()+(getHeight()+layout.height)/2);
+        if (shown==glyphs){
+            cache.draw(batch);
+        }else{
+            cache.draw(batch,0,shown);
+        }
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public float getCharsPerSecond() {
+        return charsPerSecond;
+    }
+
+    public void setCharsPerSecond(float charsPerSecond) {
+        if (charsPerSecond<=0){
+            throw new IllegalArgumentException("The typing speed must be positive");
+        }
+        this.charsPerSecond=charsPerSecond;
+    }
+
+    @Override
+    public float getPrefWidth() {
+        return getWidth();
+    }
+
+    @Override
+    public float getPrefHeight() {
+        return getHeight();
+    }
+}
@@ -0,0 +1,64 @@
+package gameHelpers;
+
+public class FixedTimestep {
+
+    /**
+     * Turns the variable time between rendered frames into a whole number of fixed simulation steps.
+     * The time left over is kept for the next frame and can be used to interpolate what is drawn
+     * between the last two steps. If the game falls behind, at most maxSteps steps are run in a frame
+     * and the rest of the time is dropped, so a long hitch does not make the game run for seconds.
+     *
+     * @param step The duration of a simulation step in seconds
+     * @param maxSteps The maximum number of steps run in a single frame
+     * @param accumulator The time not yet simulated
+     */
+    private final float step;
+    private final int maxSteps;
+    private float accumulator=0;
+
+    /**
+     * Creates a fixed timestep.
+     *
+     * @param tickRate The number of simulation steps per second
+     * @param maxSteps The maximum number of steps run in a single frame
+     */
+    public FixedTimestep(int tickRate, int maxSteps) {
+        if (tickRate<1 || maxSteps<1){
+            throw new IllegalArgumentException("The tick rate and the maximum steps must be positive");
+        }
+        this.step=1f/tickRate;
+        this.maxSteps=maxSteps;
+    }
+
+    /**
+     * Adds the time of a frame and returns how many steps have to be simulated.
+     *
+     * @param delta The time since the last frame in seconds
+     * @return The number of steps to simulate, between 0 and maxSteps
+     */
+    public int advance(float delta) {
+        accumulator+=delta;
+        int steps=(int) (accumulator/step);
+        if (steps>maxSteps){
+            //Too far behind, catch up as much as allowed and drop the rest
+            steps=maxSteps;
+            accumulator=0;
+        }else{
+            accumulator-=steps*step;
+        }
+        return steps;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public float getStep() {
+        return step;
+    }
+
+    //Returns how far the time is between the last step and the next one, from 0 to 1
+    public float getAlpha() {
+        return Math.min(accumulator/step,1);
+    }
+}
@@ -3,7 +3,6 @@ package gameHelpers;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import model.Person;
 
@@ -12,25 +11,86 @@ import java.util.ArrayList;
 public class GameRenderer extends OrthogonalTiledMapRenderer {
 
     /**
-     * A class representing a group of people, with their screen coordinates and a sprite batch.
+     * A class representing a group of people, drawn over the map in the same batch as the tiles.
      *
      * @param people An ArrayList of Person objects in the group.
-     * @param batch The SpriteBatch used to render the group.
-     * @param screenX The x-coordinate of the group on the screen.
-     * @param screenY The y-coordinate of the group on the screen.
+     * @param renderLayers The tile layers drawn below the people, in map order.
+     * @param overlayLayers The tile layers drawn above the people, in map order.
+     * @param staticLayers The render layers baked in chunks, drawn instead of submitting every cell
+     * @param layerRenderer Draws the compact layers cell by cell
+     * @param shaderLayers Draws the render and overlay layers with the tilemap shader, if the map allows it
+     * @param mode How the tile layers are drawn
+     * @param vertices The vertices of map tiles submitted in the last frame, if counted
+     * @param alpha How far the frame is between the last two simulation steps, to interpolate the people
      */
     
     private ArrayList<Person> people;
 
-    SpriteBatch batch;
+    private final ArrayList<CompactTileLayer> renderLayers;
+    private final ArrayList<CompactTileLayer> overlayLayers;
 
-    private float screenX;
-    private float screenY;
+    private final StaticLayerCache staticLayers;
+    private final CompactLayerRenderer layerRenderer;
+    private final ShaderLayerRenderer shaderLayers;
+    private Mode mode=Mode.CHUNKS;
+    private int vertices=0;
+    private float alpha=1;
 
+    /**
+     * The ways the tile layers can be drawn. CHUNKS draws the render layers from the baked chunks and
+     * the overlays cell by cell, CELLS draws every layer cell by cell with the batch, and SHADER draws
+     * every layer as a single quad with the tilemap shader.
+     */
+    public enum Mode {
+        CHUNKS("chunks"), CELLS("cells"), SHADER("shader");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label=label;
+        }
+
+        //Returns the name used in the benchmark log
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Creates the renderer of the map and the people.
+     * The layers are sorted by their role: collision and trigger layers are never drawn.
+     * Only compact tile layers are drawn, the map must have gone through CompactTileLayer.compact.
+     *
+     * @param map The map to render
+     * @param batch The batch used to draw the tiles and the people
+     */
     public GameRenderer(TiledMap map, SpriteBatch batch) {
-        super(map,1/16f);
-        this.batch=batch;
+        super(map,1/16f,batch);
         people=new ArrayList<>();
+
+        //Sort the tile layers by role
+        renderLayers=new ArrayList<>();
+        overlayLayers=new ArrayList<>();
+        for (MapLayer layer:map.getLayers()){
+            if (layer instanceof CompactTileLayer){
+                LayerRole role=LayerRole.of(layer);
+                if (role==LayerRole.RENDER){
+                    renderLayers.add((CompactTileLayer)layer);
+                }else if (role==LayerRole.OVERLAY){
+                    overlayLayers.add((CompactTileLayer)layer);
+                }
+            }
+        }
+
+        //Bake the layers below the people, they never change
+        staticLayers=new StaticLayerCache(renderLayers,unitScale,
+                map.getProperties().get("tilewidth",16,Integer.class),
+                map.getProperties().get("tileheight",16,Integer.class));
+        layerRenderer=new CompactLayerRenderer(unitScale);
+
+        ArrayList<CompactTileLayer> drawnLayers=new ArrayList<>(renderLayers);
+        drawnLayers.addAll(overlayLayers);
+        shaderLayers=new ShaderLayerRenderer(drawnLayers,unitScale);
     }
 
     public void addPerson(Person p){
@@ -39,36 +99,112 @@ public class GameRenderer extends OrthogonalTiledMapRenderer {
 
     /**
      * Renders the map and people on the screen.
-     * Begins the rendering process, then iterates through each layer of the map and renders
-     * any tile layers. After rendering the map, the method begins the batch and iterates through
-     * each person in the people list, drawing them on the screen. Finally, the batch is ended.
+     * Renders the layers below the people first, then draws each person in the people list and
+     * finally the overlay layers, so people and overlays share a single batch pass.
      */
     @Override
     public void render(){
-        beginRender();
-        //Iterate through map layer and render layer
-        for (MapLayer layer:map.getLayers()){
-            if (layer instanceof TiledMapTileLayer){
-                renderTileLayer((TiledMapTileLayer)layer);
+        vertices=0;
+        //Iterate through the layers below the people and render them
+        //Indexed loops, this runs every frame and iterators are garbage
+        for (int i=0;i<renderLayers.size();i++){
+            renderLayer(renderLayers.get(i),true);
+        }
+
+        //Iterate through all people and draw
+        useBatch();
+        for (int i=0;i<people.size();i++){
+            people.get(i).draw(getBatch(),alpha);
+        }
+
+        //Draw the overlays above the people
+        for (int i=0;i<overlayLayers.size();i++){
+            renderLayer(overlayLayers.get(i),false);
+        }
+        endAll();
+    }
+
+    /**
+     * Renders one tile layer the way the mode says, or cell by cell if the mode can not draw it.
+     * Switches between the sprite cache, the shader and the batch only when the kind of layer changes.
+     *
+     * @param layer The layer to render
+     * @param below Whether the layer is drawn below the people, the only layers baked in chunks
+     */
+    private void renderLayer(CompactTileLayer layer, boolean below){
+        if (mode==Mode.CHUNKS && below && staticLayers.contains(layer)){
+            if (!staticLayers.isDrawing()){
+                endAll();
+                staticLayers.begin(getBatch().getProjectionMatrix());
+            }
+            vertices+=staticLayers.draw(layer,viewBounds);
+        }else if (mode==Mode.SHADER && shaderLayers.isSupported()){
+            if (!shaderLayers.isDrawing()){
+                endAll();
+                shaderLayers.begin(viewBounds);
             }
+            vertices+=shaderLayers.draw(layer);
+        }else{
+            useBatch();
+            vertices+=layerRenderer.render(getBatch(),layer,viewBounds);
         }
-        endRender();
+    }
 
+    //Starts the batch, ending the sprite cache or the shader first
+    private void useBatch(){
+        if (!getBatch().isDrawing()){
+            endAll();
+            beginRender();
+        }
+    }
 
-        batch.begin();
-        //Iterate through all people and draw
-        for (Person p: people){
-            p.draw(batch,screenX,screenY);
+    //Ends whatever is drawing
+    private void endAll(){
+        if (getBatch().isDrawing()){
+            endRender();
+        }
+        if (staticLayers.isDrawing()){
+            staticLayers.end();
+        }
+        if (shaderLayers.isDrawing()){
+            shaderLayers.end();
         }
-        batch.end();
+    }
+
+    @Override
+    public void dispose(){
+        super.dispose();
+        staticLayers.dispose();
+        shaderLayers.dispose();
     }
 
     /////////////////////////
     // GETTERS AND SETTERS //
     /////////////////////////
 
-    public void setScreenCoordinates(float screenX, float screenY) {
-        this.screenX=screenX;
-        this.screenY=screenY;
+    public void setAlpha(float alpha) {
+        this.alpha=alpha;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode=mode;
+    }
+
+    //Switches to the next mode, skipping the shader if the map can not be drawn with it
+    public Mode nextMode() {
+        Mode[] modes=Mode.values();
+        mode=modes[(mode.ordinal()+1)%modes.length];
+        if (mode==Mode.SHADER && !shaderLayers.isSupported()){
+            mode=modes[(mode.ordinal()+1)%modes.length];
+        }
+        return mode;
+    }
+
+    public int getVertices() {
+        return vertices;
     }
 }
@@ -1,10 +1,7 @@
 package gameHelpers;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import model.Direction;
 import model.NPC;
-import model.Person;
 import model.Player;
 
 import java.util.ArrayList;
@@ -12,18 +9,56 @@ import java.util.ArrayList;
 public class GameUpdater {
 
     /**
-     * Represents a game world, containing a player, collision layer, and a list of NPCs.
+     * Represents a game world, containing a player, collision grid, and a list of NPCs.
+     *
+     * @param collisionGrid The blocked tiles of the map
+     * @param npcIndex The NPCs hashed by the tile they stand on, for point and radius queries
+     * @param nearbyNPCs A reusable list for the results of radius queries
+     * @param triggers The portals, dialogs and tests of the map, by tile
+     * @param lastTileX The x-coordinate of the last tile whose trigger was checked
+     * @param lastTileY The y-coordinate of the last tile whose trigger was checked
+     * @param pendingTrigger The dialog or test trigger the player stepped on, until the screen handles it
+     * @param input The commands of the keyboard and the gamepads, polled by the screen once per step
      */
+    private static final int NPC_CELL_SIZE = 8;
+
     private Player player;
+    private final InputQueue input;
 
-    private TiledMapTileLayer collisionLayer;
+    private final CollisionGrid collisionGrid;
+    private final SpatialIndex<NPC> npcIndex;
+    private final ArrayList<NPC> nearbyNPCs = new ArrayList<>();
+
+    private final TriggerIndex triggers;
+    private int lastTileX = -1;
+    private int lastTileY = -1;
+    private Trigger pendingTrigger;
 
     private ArrayList<NPC> npcList;
 
-    public GameUpdater(Player player, TiledMapTileLayer collisionLayer, ArrayList<NPC> npc) {
+    public GameUpdater(Player player, CollisionGrid collisionGrid, TriggerIndex triggers, ArrayList<NPC> npc, InputQueue input) {
         this.player = player;
-        this.collisionLayer =collisionLayer;
+        this.input = input;
         this.npcList = npc;
+        this.collisionGrid = collisionGrid;
+        this.triggers = triggers;
+
+        //Index the NPCs by tile
+        npcIndex = new SpatialIndex<>(NPC_CELL_SIZE);
+        for (NPC p: npcList){
+            npcIndex.add(p);
+        }
+    }
+
+    /**
+     * Updates the NPC index after an NPC has moved.
+     *
+     * @param npc The NPC that moved, already at its new position
+     * @param oldX The x-coordinate the NPC had before moving
+     * @param oldY The y-coordinate the NPC had before moving
+     */
+    public void npcMoved(NPC npc, float oldX, float oldY) {
+        npcIndex.move(npc, oldX, oldY);
     }
 
     /**
@@ -32,46 +67,20 @@ public class GameUpdater {
      * @param delta The time elapsed since the last update
      */
     public void update(float delta) {
-        //If player is in any of these coordinates, teleport to another place (To move between maps)
-        if(player.getX()>15 && player.getX()<20 && player.getY()==41){
-            player.teleport(96,6);
-        }
-        else if(player.getX()>94 && player.getX()<98 && player.getY()==1){
-            player.teleport(18,46);
-        }
-        else if(player.getX()>42 && player.getX()<47 && player.getY()==56){
-            player.teleport(112,83);
-        }
-        else if(player.getX()>109 && player.getX()<115 && player.getY()==84){
-            player.teleport(45,62);
-        }
+        //If player has stepped on a portal, teleport to another place (To move between maps)
+        checkTriggers();
 
-        //If player pressed any of these keys and there is no collision, move
+        //If player pressed or is holding a move and there is no collision, move
         //If there is a collision there, turn
-        if (Gdx.input.isKeyPressed(Input.Keys.W)){
-            if (!checkCollision(player.getX(), player.getY()+1, collisionLayer)){
-                player.move(0,1);
-            }else{
-                player.turn(0,1);
-            }
-
-        } else if(Gdx.input.isKeyPressed(Input.Keys.S)){
-            if (!checkCollision(player.getX(), player.getY()-1, collisionLayer)) {
-                player.move(0, -1);
-            }else{
-                player.turn(0,-1);
-            }
-        } else if (Gdx.input.isKeyPressed(Input.Keys.D)){
-            if (!checkCollision(player.getX()+1, player.getY(), collisionLayer)) {
-                player.move(1, 0);
-            }else{
-                player.turn(1,0);
-            }
-        } else if (Gdx.input.isKeyPressed(Input.Keys.A)){
-            if (!checkCollision(player.getX()-1, player.getY(), collisionLayer)) {
-                player.move(-1, 0);
-            }else{
-                player.turn(-1,0);
+        //Moves pressed while the player is walking are kept until the step ends
+        if (!player.isMoving()){
+            Direction move = input.takeMove();
+            if (move!=null){
+                if (!checkCollision(player.getX()+move.getDx(), player.getY()+move.getDy())){
+                    player.move(move.getDx(), move.getDy());
+                }else{
+                    player.turn(move.getDx(), move.getDy());
+                }
             }
         }
         //Update player
@@ -79,88 +88,140 @@ public class GameUpdater {
     }
 
     /**
-     * Determines if the next position of the player is blocked by a collision layer or an NPC.
+     * Checks the trigger of the tile the player is standing on, once each time the player reaches a new tile.
+     * Portals teleport the player at once, dialogs and tests are kept until checkTrigger is called.
+     */
+    private void checkTriggers() {
+        //Triggers only fire on whole tiles
+        if (!isTile(player.getX()) || !isTile(player.getY())){
+            return;
+        }
+        int x=(int)player.getX();
+        int y=(int)player.getY();
+        if (x==lastTileX && y==lastTileY){
+            return;
+        }
+        lastTileX=x;
+        lastTileY=y;
+
+        Trigger trigger=triggers.get(x,y);
+        if (trigger==null){
+            return;
+        }
+        if (trigger.getType()==Trigger.Type.PORTAL){
+            player.teleport(trigger.getTargetX(),trigger.getTargetY());
+            //Do not trigger the destination tile
+            lastTileX=trigger.getTargetX();
+            lastTileY=trigger.getTargetY();
+        }else{
+            pendingTrigger=trigger;
+        }
+    }
+
+    /**
+     * Returns the dialog or test trigger the player has stepped on since the last call, or null if there is none.
+     */
+    public Trigger checkTrigger() {
+        Trigger trigger=pendingTrigger;
+        pendingTrigger=null;
+        return trigger;
+    }
+
+    //Returns true if the coordinate is a whole tile
+    private static boolean isTile(float coordinate) {
+        return coordinate==(int)coordinate;
+    }
+
+    /**
+     * Determines if the next position of the player is blocked by the collision layer or an NPC.
      *
      * @param nextX The next X position of the player.
      * @param nextY The next Y position of the player.
-     * @param collisionLayer The collision layer of the game map.
      * @return True if the next position is blocked, false otherwise.
      */
-    public boolean checkCollision(float nextX, float nextY, TiledMapTileLayer collisionLayer) {
-        boolean npcNext = false;
-        //Get the cell at the next position
-        TiledMapTileLayer.Cell cell = collisionLayer.getCell((int)nextX , (int)nextY );
-        // Check if the cell is null
-        if(cell == null){
-            //If cell is null, there is no collision
-            //Iterate through people
-            for(Person p:npcList){
-                //Check if npc next to player
-                if(p.getX()==nextX && p.getY()==nextY){
-                    npcNext = true;
-                }
-            }
-        }
-        //If cell is not null or there is a npc next to the player, player is bloqued
-        return cell!=null || npcNext;
+    public boolean checkCollision(float nextX, float nextY) {
+        //If the tile is blocked in the collision layer or there is a npc there, player is bloqued
+        return collisionGrid.isBlocked((int)nextX, (int)nextY) || checkNPC(nextX, nextY)!=null;
     }
 
     /**
-     * Checks if the player is interacting with an NPC by checking if the 'E' key is pressed and
-     * the player is facing an NPC.
+     * Checks if the player is interacting with an NPC by checking if the interact command was pressed and
+     * the player is facing an NPC. Holding the key does not interact again.
      *
      * @return The NPC that the player is interacting with, or null if there is no interaction.
      */
     public NPC checkInteraction() {
         NPC npc = null;
-        //Check if player pressed key E in the keyboard
-        if (Gdx.input.isKeyPressed(Input.Keys.E)){
-            //Get the interacting direction
-            if(player.getDirection().equals("derecha")){
-                //Check if there is an NPC in that direction
-                npc = checkNPC(player.getX()+1,player.getY());
-            }
-            else if(player.getDirection().equals("izquierda")){
-                npc = checkNPC(player.getX()-1,player.getY());
-            }
-            else if(player.getDirection().equals("espaldas")){
-                npc = checkNPC(player.getX(),player.getY()+1);
-            }
-            else if(player.getDirection().equals("frente")){
-                npc = checkNPC(player.getX(),player.getY()-1);
-            }
+        //Check if player pressed the interact key of the keyboard or the gamepad
+        if (input.consume(Command.INTERACT)){
+            //Check if there is an NPC in the facing direction
+            Direction facing = player.getFacing();
+            npc = checkNPC(player.getX()+facing.getDx(),player.getY()+facing.getDy());
         }
         return npc;
     }
 
     /**
-     * Searches for an NPC in the list of NPCs at a given (x, y) coordinate.
+     * Looks up the NPC standing at a given (x, y) coordinate in the NPC index.
      *
      * @param x The x-coordinate to search for
      * @param y The y-coordinate to search for
      * @return The NPC at the given (x, y) coordinate, or null if no NPC is found
      */
     public NPC checkNPC(float x, float y) {
-        NPC npc = null;
-        //Iterate through NPCs list
-        for(NPC p:npcList){
-            if(p.getY()==y && p.getX()==x){
-                npc=p;
+        return npcIndex.get(x, y);
+    }
+
+    /**
+     * Finds the nearest NPC in front of the player, within the given number of tiles.
+     * NPCs up to one tile to either side of the line the player is facing are also considered.
+     *
+     * @param range The maximum distance, in tiles, in the facing direction
+     * @return The nearest NPC in front of the player, or null if there is none in range
+     */
+    public NPC findFacingNPC(int range) {
+        Direction facing=player.getFacing();
+        NPC nearest=null;
+        float nearestDistance=range+1;
+
+        //Only the NPCs around the player are checked
+        nearbyNPCs.clear();
+        npcIndex.query(player.getX(), player.getY(), range+1, nearbyNPCs);
+        for(int i=0;i<nearbyNPCs.size();i++){
+            NPC p=nearbyNPCs.get(i);
+            float offsetX=p.getX()-player.getX();
+            float offsetY=p.getY()-player.getY();
+            //Distance along the facing direction and distance to its side
+            float distance=offsetX*facing.getDx()+offsetY*facing.getDy();
+            float side=Math.abs(offsetX*facing.getDy()-offsetY*facing.getDx());
+            if(distance>0 && distance<nearestDistance && side<=1){
+                nearest=p;
+                nearestDistance=distance;
             }
         }
-        return npc;
+        nearbyNPCs.clear();
+        return nearest;
+    }
+
+    /**
+     * Returns the nearest NPC within the given distance of the player, or null if there is none.
+     *
+     * @param radius The maximum distance in tiles
+     */
+    public NPC findNearestNPC(float radius) {
+        return npcIndex.nearest(player.getX(), player.getY(), radius);
     }
 
     /**
-     * Checks for user input and returns a value based on the key pressed.
+     * Checks for user input and returns a value based on the command pressed in this step.
+     * Each press is only returned once, so this must be called once per step.
      *
-     * @return -1 if no key is pressed, 0 if the enter key is pressed, and 1 if the escape key is pressed.
+     * @return -1 if nothing is pressed, 0 if confirm (enter) is pressed, and 1 if cancel (escape) is pressed.
      */
     public int checkInput() {
-        //Check keyboard input
         int ret = -1;
-        if (Gdx.input.isKeyPressed(Input.Keys.ESCAPE)){ret = 1;}
-        else if (Gdx.input.isKeyPressed(Input.Keys.ENTER)){ret = 0;}
+        if (input.consume(Command.CANCEL)){ret = 1;}
+        else if (input.consume(Command.CONFIRM)){ret = 0;}
         return ret;
     }
 }
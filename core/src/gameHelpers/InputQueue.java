@@ -0,0 +1,335 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.controllers.Controller;
+import com.badlogic.gdx.controllers.ControllerListener;
+import com.badlogic.gdx.controllers.ControllerMapping;
+import com.badlogic.gdx.controllers.Controllers;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
+import model.Direction;
+
+import java.util.Arrays;
+
+public class InputQueue extends InputAdapter implements ControllerListener, Disposable {
+
+    /**
+     * Collects the presses and releases of the keyboard and the gamepads as timestamped commands,
+     * so the game reacts to every event instead of to the state of the keys when a frame is drawn.
+     * Events are stored in a ring buffer when they arrive and are applied once per simulation step by poll,
+     * so the cost of the input is the number of events and not the number of keys checked.
+     *
+     * Moves are buffered: a move pressed while the player is still walking is kept until the step ends,
+     * so a short tap is never lost. A held move keeps walking, the most recently pressed one wins.
+     * INTERACT, CONFIRM and CANCEL only fire once per press and only during the step they are polled in.
+     *
+     * Both the keyboard and the gamepad events arrive on the render thread, so the queue is not synchronized.
+     *
+     * @param commands The ordinal of the command of each queued event
+     * @param downs Whether each queued event is a press or a release
+     * @param times The time of each queued event in nanoseconds
+     * @param head The index of the oldest queued event
+     * @param size The number of queued events
+     * @param held How many devices are holding each move command
+     * @param heldOrder The order in which each move command was last pressed
+     * @param pressed The commands pressed since the last poll, until they are consumed
+     * @param bufferedMove The last move pressed that has not been taken yet, or null
+     * @param bufferedAt The time the buffered move was pressed
+     * @param stickMove The move the left stick of the gamepads is pointing to, or null
+     * @param measuring Whether the latency from pressing a move to the player starting to walk is logged
+     */
+    private static final int CAPACITY=64;
+    private static final float STICK_DEADZONE=0.5f;
+    private static final int LATENCY_SAMPLE=20;
+
+    private static final Command[] COMMANDS=Command.values();
+
+    private final int[] commands=new int[CAPACITY];
+    private final boolean[] downs=new boolean[CAPACITY];
+    private final long[] times=new long[CAPACITY];
+    private int head=0;
+    private int size=0;
+
+    private final int[] held=new int[COMMANDS.length];
+    private final long[] heldOrder=new long[COMMANDS.length];
+    private long order=0;
+    private final boolean[] pressed=new boolean[COMMANDS.length];
+
+    private Command bufferedMove;
+    private long bufferedAt;
+
+    private Command stickMove;
+
+    private boolean measuring=false;
+    private int moves=0;
+    private long totalLatency=0;
+    private long maxLatency=0;
+
+    /**
+     * Creates an empty queue and starts listening to the gamepads.
+     * The keyboard events arrive once the queue is set as an input processor.
+     */
+    public InputQueue() {
+        Controllers.addListener(this);
+    }
+
+    /**
+     * Adds an event to the queue. If the queue is full the oldest event is dropped.
+     */
+    private void push(Command command, boolean down) {
+        if (size==CAPACITY){
+            head=(head+1)%CAPACITY;
+            size-=1;
+        }
+        int tail=(head+size)%CAPACITY;
+        commands[tail]=command.ordinal();
+        downs[tail]=down;
+        times[tail]=TimeUtils.nanoTime();
+        size+=1;
+    }
+
+    /**
+     * Applies the events queued since the last poll. Must be called once at the start of every simulation step.
+     * The commands pressed in the previous step and not consumed are discarded.
+     */
+    public void poll() {
+        Arrays.fill(pressed,false);
+        while (size>0){
+            Command command=COMMANDS[commands[head]];
+            boolean down=downs[head];
+            long time=times[head];
+            head=(head+1)%CAPACITY;
+            size-=1;
+
+            int i=command.ordinal();
+            if (command.isMove()){
+                if (down){
+                    held[i]+=1;
+                    order+=1;
+                    heldOrder[i]=order;
+                    bufferedMove=command;
+                    bufferedAt=time;
+                }else if (held[i]>0){
+                    held[i]-=1;
+                }
+            }else if (down){
+                pressed[i]=true;
+            }
+        }
+    }
+
+    /**
+     * Returns the direction the player should walk to next, or null if no move is pressed or held.
+     * A buffered press is taken first, if there is none the most recently pressed move still held is returned.
+     * Should only be called when the player can start a new step.
+     */
+    public Direction takeMove() {
+        if (bufferedMove!=null){
+            Command move=bufferedMove;
+            bufferedMove=null;
+            measure(bufferedAt);
+            return move.getDirection();
+        }
+
+        Command move=null;
+        long last=-1;
+        for (int i=0;i<COMMANDS.length;i++){
+            if (held[i]>0 && heldOrder[i]>last){
+                move=COMMANDS[i];
+                last=heldOrder[i];
+            }
+        }
+        return move==null ? null : move.getDirection();
+    }
+
+    /**
+     * Returns true if the command was pressed in this step, and consumes the press so it only fires once.
+     */
+    public boolean consume(Command command) {
+        boolean wasPressed=pressed[command.ordinal()];
+        pressed[command.ordinal()]=false;
+        return wasPressed;
+    }
+
+    /**
+     * Forgets the buffered move and the pressed commands, for example when a dialog is closed.
+     * Moves still held keep walking.
+     */
+    public void clear() {
+        bufferedMove=null;
+        Arrays.fill(pressed,false);
+    }
+
+    /**
+     * Forgets everything, including the queued events and the held moves.
+     * Used when the queue starts receiving events again, because releases may have gone to another screen.
+     */
+    public void reset() {
+        head=0;
+        size=0;
+        Arrays.fill(held,0);
+        stickMove=null;
+        clear();
+    }
+
+    /**
+     * Adds the latency of a move to the current sample and logs the sample when it is complete.
+     *
+     * @param pressedAt The time the move was pressed
+     */
+    private void measure(long pressedAt) {
+        if (!measuring){
+            return;
+        }
+        long latency=TimeUtils.nanoTime()-pressedAt;
+        totalLatency+=latency;
+        maxLatency=Math.max(maxLatency,latency);
+        moves+=1;
+
+        if (moves==LATENCY_SAMPLE){
+            Gdx.app.log("InputQueue", "press to move: "+(totalLatency/moves/1000f)+" us average, "+(maxLatency/1000f)+" us max");
+            moves=0;
+            totalLatency=0;
+            maxLatency=0;
+        }
+    }
+
+    //Returns the command of a key of the keyboard, or null if the key is not used
+    private static Command keyCommand(int keycode) {
+        switch (keycode){
+            case Input.Keys.W: return Command.MOVE_UP;
+            case Input.Keys.S: return Command.MOVE_DOWN;
+            case Input.Keys.A: return Command.MOVE_LEFT;
+            case Input.Keys.D: return Command.MOVE_RIGHT;
+            case Input.Keys.E: return Command.INTERACT;
+            case Input.Keys.ENTER: return Command.CONFIRM;
+            case Input.Keys.ESCAPE: return Command.CANCEL;
+            default: return null;
+        }
+    }
+
+    //Returns the command of a button of a gamepad, or null if the button is not used
+    private static Command buttonCommand(Controller controller, int buttonCode) {
+        ControllerMapping mapping=controller.getMapping();
+        if (buttonCode==mapping.buttonDpadUp) return Command.MOVE_UP;
+        if (buttonCode==mapping.buttonDpadDown) return Command.MOVE_DOWN;
+        if (buttonCode==mapping.buttonDpadLeft) return Command.MOVE_LEFT;
+        if (buttonCode==mapping.buttonDpadRight) return Command.MOVE_RIGHT;
+        if (buttonCode==mapping.buttonA) return Command.INTERACT;
+        if (buttonCode==mapping.buttonStart) return Command.CONFIRM;
+        if (buttonCode==mapping.buttonB) return Command.CANCEL;
+        return null;
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        Command command=keyCommand(keycode);
+        if (command==null){
+            return false;
+        }
+        push(command,true);
+        return true;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        Command command=keyCommand(keycode);
+        if (command==null){
+            return false;
+        }
+        push(command,false);
+        return true;
+    }
+
+    @Override
+    public boolean buttonDown(Controller controller, int buttonCode) {
+        Command command=buttonCommand(controller,buttonCode);
+        if (command==null){
+            return false;
+        }
+        push(command,true);
+        //The A button also closes the dialogs, like ENTER
+        if (command==Command.INTERACT){
+            push(Command.CONFIRM,true);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean buttonUp(Controller controller, int buttonCode) {
+        Command command=buttonCommand(controller,buttonCode);
+        if (command==null){
+            return false;
+        }
+        push(command,false);
+        return true;
+    }
+
+    /**
+     * Turns the left stick into move presses and releases when it crosses the deadzone or changes direction.
+     */
+    @Override
+    public boolean axisMoved(Controller controller, int axisCode, float value) {
+        ControllerMapping mapping=controller.getMapping();
+        if (axisCode!=mapping.axisLeftX && axisCode!=mapping.axisLeftY){
+            return false;
+        }
+        float x=controller.getAxis(mapping.axisLeftX);
+        //The y axis of the stick points down
+        float y=-controller.getAxis(mapping.axisLeftY);
+
+        Command move=null;
+        if (Math.abs(x)>=STICK_DEADZONE || Math.abs(y)>=STICK_DEADZONE){
+            if (Math.abs(x)>Math.abs(y)){
+                move=x>0 ? Command.MOVE_RIGHT : Command.MOVE_LEFT;
+            }else{
+                move=y>0 ? Command.MOVE_UP : Command.MOVE_DOWN;
+            }
+        }
+        if (move!=stickMove){
+            if (stickMove!=null){
+                push(stickMove,false);
+            }
+            if (move!=null){
+                push(move,true);
+            }
+            stickMove=move;
+        }
+        return true;
+    }
+
+    @Override
+    public void connected(Controller controller) {
+    }
+
+    @Override
+    public void disconnected(Controller controller) {
+        //Release the stick, the gamepad will not send it again
+        if (stickMove!=null){
+            push(stickMove,false);
+            stickMove=null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        Controllers.removeListener(this);
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public boolean isMeasuring() {
+        return measuring;
+    }
+
+    public void setMeasuring(boolean measuring) {
+        this.measuring=measuring;
+        moves=0;
+        totalLatency=0;
+        maxLatency=0;
+    }
+}
@@ -0,0 +1,67 @@
+package gameHelpers;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+
+public enum LayerRole {
+
+    /**
+     * The role of a layer of the map, read from its "role" property in the TMX file.
+     * RENDER layers are drawn below the people, OVERLAY layers are drawn above them,
+     * COLLISION layers mark the blocked tiles and TRIGGER layers mark the tiles that trigger events.
+     * Only RENDER and OVERLAY layers are drawn. Layers without the property are RENDER layers.
+     */
+    RENDER("render"),
+    OVERLAY("overlay"),
+    COLLISION("collision"),
+    TRIGGER("trigger");
+
+    public static final String PROPERTY="role";
+
+    private final String name;
+
+    LayerRole(String name) {
+        this.name=name;
+    }
+
+    /**
+     * Returns the role of the given layer.
+     *
+     * @param layer The layer of the map
+     * @return The role in the layer properties, or RENDER if it has none or it is unknown
+     */
+    public static LayerRole of(MapLayer layer) {
+        String role=layer.getProperties().get(PROPERTY,String.class);
+        if (role!=null){
+            for (LayerRole r: values()){
+                if (r.name.equalsIgnoreCase(role)){
+                    return r;
+                }
+            }
+        }
+        return RENDER;
+    }
+
+    /**
+     * Returns the first layer with the given role.
+     *
+     * @param layers The layers of the map
+     * @param role The role to look for
+     * @return The first layer with that role, or null if there is none
+     */
+    public static MapLayer find(MapLayers layers, LayerRole role) {
+        for (MapLayer layer: layers){
+            if (of(layer)==role){
+                return layer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if layers with this role are drawn.
+     */
+    public boolean isDrawn() {
+        return this==RENDER || this==OVERLAY;
+    }
+}
@@ -0,0 +1,89 @@
+package gameHelpers;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+
+public class LivesHud {
+
+    /**
+     * Shows the number of lives left in the corner of the game screen.
+     * The images of every number of lives are loaded once, and the image actor only changes
+     * when the number of lives changes, so drawing the HUD each frame does not create anything.
+     *
+     * @param drawables The image of each number of lives, indexed by the number of lives
+     * @param image The actor that shows the current number of lives
+     * @param shownLives The number of lives the actor is showing, -1 if none yet
+     */
+    private static final int MAX_LIVES=3;
+
+    private final TextureRegionDrawable[] drawables;
+    private final Image image;
+    private int shownLives=-1;
+
+    /**
+     * Creates the lives HUD and adds it to the given stage.
+     *
+     * @param stage The stage the HUD is drawn on
+     * @param x The x-coordinate of the HUD on the screen
+     * @param y The y-coordinate of the HUD on the screen
+     */
+    public LivesHud(Stage stage, float x, float y) {
+        drawables=new TextureRegionDrawable[MAX_LIVES+1];
+        for (int i=1;i<=MAX_LIVES;i++){
+            drawables[i]=new TextureRegionDrawable(TextureCache.acquire(livesPath(i)));
+        }
+
+        image=new Image();
+        image.setPosition(x,y);
+        image.setVisible(false);
+        stage.addActor(image);
+    }
+
+    /**
+     * Updates the image of the HUD if the number of lives has changed since the last call.
+     *
+     * @param lives The current number of lives
+     */
+    public void update(int lives) {
+        if (lives==shownLives){
+            return;
+        }
+        shownLives=lives;
+
+        //There is no image for no lives or more lives than the maximum, hide the HUD then
+        if (lives<1 || lives>MAX_LIVES){
+            image.setVisible(false);
+            return;
+        }
+        image.setDrawable(drawables[lives]);
+        image.setSize(image.getPrefWidth(),image.getPrefHeight());
+        image.setVisible(true);
+    }
+
+    /**
+     * Releases the textures of the HUD.
+     */
+    public void dispose() {
+        image.remove();
+        for (int i=1;i<=MAX_LIVES;i++){
+            TextureCache.release(livesPath(i));
+        }
+    }
+
+    /**
+     * Returns the textures of the HUD, to preload them with the screen that shows it.
+     */
+    public static AssetManifest manifest() {
+        AssetManifest manifest=new AssetManifest();
+        for (int i=1;i<=MAX_LIVES;i++){
+            manifest.add(livesPath(i),Texture.class);
+        }
+        return manifest;
+    }
+
+    private static String livesPath(int lives) {
+        return "Lives/"+lives+"lives.png";
+    }
+}
@@ -0,0 +1,30 @@
+package gameHelpers;
+
+public final class MapFormat {
+
+    /**
+     * The constants of the binary map format, shared by MapCompiler, which writes it in the tools
+     * source set, and BinaryMapLoader, which reads it in the game. The layout of the format is
+     * described in MapCompiler.
+     */
+    public static final int MAGIC=0x494D4150; //"IMAP"
+    public static final int VERSION=1;
+
+    public static final int FLIP_HORIZONTALLY=0x80000000;
+    public static final int FLIP_VERTICALLY=0x40000000;
+    public static final int FLIP_DIAGONALLY=0x20000000;
+    public static final int FLIP_MASK=FLIP_HORIZONTALLY|FLIP_VERTICALLY|FLIP_DIAGONALLY;
+
+    //The packed cells keep the flip bits of the gids in their three high bits
+    public static final int CELL_FLIP_SHIFT=16;
+    public static final int CELL_TILE_MASK=0x1FFF;
+
+    //Type tags of the stored properties
+    public static final byte STRING='s';
+    public static final byte INT='i';
+    public static final byte FLOAT='f';
+    public static final byte BOOLEAN='b';
+
+    private MapFormat() {
+    }
+}
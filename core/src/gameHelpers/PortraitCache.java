@@ -0,0 +1,300 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+public class PortraitCache {
+
+    /**
+     * A bounded cache of the portraits shown in the NPC dialogs.
+     * Portraits packed in the sprite atlas are served from it and cost nothing. Loose portraits are
+     * decoded into their own textures, kept in least recently used order and evicted when their
+     * total size goes over the budget. Portraits can be prefetched: the PNG is decoded on a worker
+     * thread and uploaded on the render thread, so showing it later does not wait for the decode.
+     * A portrait that is not loaded yet is shown blank and swapped in once it is uploaded, and one
+     * that could not be decoded stays blank, so the render thread never decodes an image itself.
+     *
+     * @param budget The maximum number of bytes of loose portrait textures kept loaded
+     * @param entries The loaded portraits in least recently used order, keyed by path
+     * @param pending The paths being decoded by the worker thread
+     * @param failed The paths that could not be decoded, so they are not prefetched again every step
+     * @param waiting The blank drawables handed out for paths still being decoded, filled in when they are uploaded
+     * @param blank The transparent texture shown while a portrait loads or when it could not be decoded
+     * @param fallback The drawable returned for the portraits that could not be decoded
+     * @param decoded The images decoded by the worker thread waiting to be uploaded
+     * @param decoder The worker thread that decodes the prefetched images
+     */
+    private final long budget;
+
+    private final LinkedHashMap<String, Entry> entries=new LinkedHashMap<>(16,0.75f,true);
+    private final HashSet<String> pending=new HashSet<>();
+    private final HashSet<String> failed=new HashSet<>();
+    private final HashMap<String, TextureRegionDrawable> waiting=new HashMap<>();
+    private final ConcurrentLinkedQueue<Decoded> decoded=new ConcurrentLinkedQueue<>();
+    private final ExecutorService decoder;
+    private final Texture blank;
+    private final Drawable fallback;
+
+    private long usedBytes=0;
+    private int hits=0;
+    private int misses=0;
+    private int evictions=0;
+    private int prefetches=0;
+
+    /**
+     * Creates a portrait cache. Must be called from the render thread.
+     *
+     * @param budget The maximum number of bytes of loose portrait textures to keep loaded
+     */
+    public PortraitCache(long budget) {
+        this.budget=budget;
+
+        Pixmap pixmap=new Pixmap(1,1,Pixmap.Format.RGBA8888);
+        pixmap.setColor(Color.CLEAR);
+        pixmap.fill();
+        blank=new Texture(pixmap);
+        pixmap.dispose();
+        fallback=new TextureRegionDrawable(new TextureRegion(blank));
+
+        decoder=Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread=new Thread(r,"PortraitDecoder");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Returns the portrait at the given path. If it is not loaded yet, a blank drawable is returned and
+     * the portrait is drawn into it by update() once it has been decoded. Must be called from the render thread.
+     *
+     * @param url The internal path of the portrait
+     * @return The drawable of the portrait, blank while it loads or if it could not be decoded
+     */
+    public Drawable get(String url) {
+        //Upload anything the worker thread has already decoded
+        update();
+
+        Entry entry=entries.get(url);
+        if (entry!=null){
+            hits+=1;
+            return entry.drawable;
+        }
+        misses+=1;
+
+        if (failed.contains(url)){
+            return fallback;
+        }
+
+        //Not prefetched in time, decode it in the background and show it blank until then
+        prefetch(url);
+        entry=entries.get(url);
+        if (entry!=null){
+            //Packed in the atlas, so it was loaded right away
+            return entry.drawable;
+        }
+        TextureRegionDrawable placeholder=waiting.get(url);
+        if (placeholder==null){
+            placeholder=new TextureRegionDrawable(new TextureRegion(blank));
+            waiting.put(url,placeholder);
+        }
+        return placeholder;
+    }
+
+    /**
+     * Starts loading the portrait at the given path in the background, if it is not loaded or loading already.
+     *
+     * @param url The internal path of the portrait
+     */
+    public void prefetch(final String url) {
+        if (entries.containsKey(url) || pending.contains(url) || failed.contains(url)){
+            return;
+        }
+
+        //Packed portraits need no decoding
+        TextureRegion region=SpriteAtlas.findRegion(url);
+        if (region!=null){
+            put(url,new Entry(region));
+            return;
+        }
+
+        prefetches+=1;
+        pending.add(url);
+        decoder.execute(new Runnable() {
+            @Override
+            public void run() {
+                Pixmap pixmap=null;
+                try {
+                    pixmap=new Pixmap(Gdx.files.internal(url));
+                } catch (GdxRuntimeException e) {
+                    Gdx.app.error("PortraitCache", "Could not decode "+url, e);
+                }
+                decoded.add(new Decoded(url,pixmap));
+            }
+        });
+    }
+
+    /**
+     * Uploads the portraits decoded by the worker thread. Must be called from the render thread.
+     */
+    public void update() {
+        Decoded image;
+        while ((image=decoded.poll())!=null){
+            pending.remove(image.url);
+            TextureRegionDrawable placeholder=waiting.remove(image.url);
+            if (image.pixmap==null){
+                //Whoever got a placeholder keeps showing it blank
+                failed.add(image.url);
+                continue;
+            }
+            Texture texture=new Texture(image.pixmap);
+            image.pixmap.dispose();
+            if (placeholder!=null){
+                //Fill in the drawable already shown in the dialog
+                placeholder.setRegion(new TextureRegion(texture));
+                put(image.url,new Entry(texture,placeholder));
+            }else{
+                put(image.url,new Entry(texture));
+            }
+        }
+    }
+
+    /**
+     * Adds a portrait to the cache and evicts the least recently used ones while over budget.
+     * The portrait just added is never evicted.
+     */
+    private void put(String url, Entry entry) {
+        entries.put(url,entry);
+        usedBytes+=entry.bytes;
+
+        Iterator<Map.Entry<String, Entry>> iterator=entries.entrySet().iterator();
+        while (usedBytes>budget && iterator.hasNext()){
+            Entry eldest=iterator.next().getValue();
+            if (eldest==entry){
+                break;
+            }
+            if (eldest.texture==null){
+                //Atlas portraits do not use any memory of their own
+                continue;
+            }
+            iterator.remove();
+            usedBytes-=eldest.bytes;
+            eldest.texture.dispose();
+            evictions+=1;
+        }
+    }
+
+    /**
+     * Disposes every loaded portrait and stops the worker thread.
+     */
+    public void dispose() {
+        decoder.shutdownNow();
+        for (Entry entry: entries.values()){
+            if (entry.texture!=null){
+                entry.texture.dispose();
+            }
+        }
+        entries.clear();
+        usedBytes=0;
+
+        Decoded image;
+        while ((image=decoded.poll())!=null){
+            if (image.pixmap!=null){
+                image.pixmap.dispose();
+            }
+        }
+        pending.clear();
+        failed.clear();
+        waiting.clear();
+        blank.dispose();
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int getEvictions() {
+        return evictions;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int getPrefetches() {
+        return prefetches;
+    }
+
+    public float getHitRatio() {
+        int requests=hits+misses;
+        return requests==0 ? 0 : hits/(float) requests;
+    }
+
+    /**
+     * A loaded portrait. Loose portraits own their texture, atlas portraits have none.
+     */
+    private static class Entry {
+        private final Drawable drawable;
+        private final Texture texture;
+        private final long bytes;
+
+        private Entry(Texture texture){
+            this(texture,new TextureRegionDrawable(texture));
+        }
+
+        private Entry(Texture texture, Drawable drawable){
+            this.drawable=drawable;
+            this.texture=texture;
+            this.bytes=TextureCache.sizeOf(texture);
+        }
+
+        private Entry(TextureRegion region){
+            this.drawable=new TextureRegionDrawable(region);
+            this.texture=null;
+            this.bytes=0;
+        }
+    }
+
+    /**
+     * An image decoded by the worker thread, or a null pixmap if it could not be decoded.
+     */
+    private static class Decoded {
+        private final String url;
+        private final Pixmap pixmap;
+
+        private Decoded(String url, Pixmap pixmap){
+            this.url=url;
+            this.pixmap=pixmap;
+        }
+    }
+}
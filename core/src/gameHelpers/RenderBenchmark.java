@@ -0,0 +1,131 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+public class RenderBenchmark {
+
+    /**
+     * Measures the map rendering of the game screen while it is enabled.
+     * Every SAMPLE_FRAMES frames it logs the average time spent rendering the map and the average
+     * number of tile vertices submitted per frame, tagged with the render path that was in use.
+     * The time is measured on the CPU side, from the start to the end of the map render calls.
+     * It also logs the average bytes allocated by the render thread over the whole frame, which
+     * should be zero while the player walks around, if the JVM can count them.
+     *
+     * @param enabled Whether frames are being measured
+     * @param frames The frames measured in the current sample
+     * @param nanos The total render time of the current sample
+     * @param vertices The total vertices submitted in the current sample
+     * @param allocated The total bytes allocated by the render thread in the current sample
+     * @param path The name of the render path used in the last frame
+     */
+    private static final int SAMPLE_FRAMES=600;
+
+    //The allocation counter of the JVM, or null if it does not have one
+    private static final com.sun.management.ThreadMXBean THREADS=allocationCounter();
+
+    private boolean enabled=false;
+
+    private int frames=0;
+    private long nanos=0;
+    private long vertices=0;
+    private long allocated=0;
+    private long start;
+    private long frameStart;
+    private String path="";
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            ThreadMXBean threads=ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()){
+                ((com.sun.management.ThreadMXBean) threads).setThreadAllocatedMemoryEnabled(true);
+                return (com.sun.management.ThreadMXBean) threads;
+            }
+        } catch (LinkageError | UnsupportedOperationException e) {
+            //Not a HotSpot JVM, allocations are not reported
+        }
+        return null;
+    }
+
+    //Returns the bytes allocated by the current thread so far, or 0 if they can not be counted
+    private static long allocatedBytes() {
+        return THREADS==null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Marks the start of a measured frame, before the game is updated.
+     */
+    public void beginFrame() {
+        if (enabled){
+            frameStart=allocatedBytes();
+        }
+    }
+
+    /**
+     * Marks the start of the map render of a measured frame.
+     */
+    public void begin() {
+        if (enabled){
+            start=System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the end of the map render of a measured frame.
+     *
+     * @param path The name of the render path used in this frame
+     * @param frameVertices The vertices submitted in this frame
+     */
+    public void end(String path, int frameVertices) {
+        if (!enabled){
+            return;
+        }
+        nanos+=System.nanoTime()-start;
+        vertices+=frameVertices;
+        this.path=path;
+    }
+
+    /**
+     * Marks the end of a measured frame and logs the averages when the sample is complete.
+     */
+    public void endFrame() {
+        if (!enabled){
+            return;
+        }
+        allocated+=allocatedBytes()-frameStart;
+        frames+=1;
+
+        if (frames==SAMPLE_FRAMES){
+            Gdx.app.log("RenderBenchmark", path+": "+(nanos/frames/1000f)+" us/frame, "+(vertices/frames)+" vertices/frame, "
+                    +(THREADS==null ? "allocations not counted" : (allocated/frames)+" bytes allocated/frame"));
+            reset();
+        }
+    }
+
+    /**
+     * Discards the current sample, for example when the render path changes.
+     */
+    public void reset() {
+        frames=0;
+        nanos=0;
+        vertices=0;
+        allocated=0;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled=enabled;
+        reset();
+    }
+}
@@ -0,0 +1,161 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ScreenManager implements Disposable {
+
+    /**
+     * Keeps one instance of each screen of the game alive, so screens that are shown again are reused
+     * instead of built from scratch. A pooled screen whose content depends on the game state has a
+     * reset method with that state, which rebuilds only what changes and is called before showing it again.
+     * Every screen obtained from the manager is disposed by it, when asked to or when the game ends.
+     *
+     * The footprint of each screen is measured while it is built: the heap it took and the bytes of the
+     * textures it added to the texture cache. Screens that own textures outside the cache report their
+     * own GPU bytes by implementing Footprint. The heap is measured without collecting garbage first,
+     * so it is an estimate.
+     *
+     * @param screens The live screens with their footprint, in the order they were created
+     * @param creations The number of screens built
+     * @param reuses The number of times a live screen was reused
+     */
+    private final LinkedHashMap<Class<? extends Screen>, Entry> screens=new LinkedHashMap<>();
+    private int creations=0;
+    private int reuses=0;
+
+    /**
+     * Builds a screen when there is no live one of its class.
+     */
+    public interface Factory<T extends Screen> {
+        T create();
+    }
+
+    /**
+     * Implemented by screens that own GPU resources the texture cache does not know about.
+     */
+    public interface Footprint {
+        long getGpuBytes();
+    }
+
+    /**
+     * Returns the live screen of the given class, building it with the factory if there is none.
+     *
+     * @param type The class of the screen
+     * @param factory Builds the screen if it is not live
+     * @return The screen, or null if the factory could not build it
+     */
+    public <T extends Screen> T obtain(Class<T> type, Factory<T> factory) {
+        Entry entry=screens.get(type);
+        if (entry!=null){
+            reuses+=1;
+            return type.cast(entry.screen);
+        }
+
+        long heap=usedHeap();
+        long textures=TextureCache.getLiveBytes();
+        T screen=factory.create();
+        if (screen==null){
+            return null;
+        }
+        screens.put(type,new Entry(screen,Math.max(0,usedHeap()-heap),TextureCache.getLiveBytes()-textures));
+        creations+=1;
+        report();
+        return screen;
+    }
+
+    /**
+     * Returns the live screen of the given class, or null if there is none.
+     */
+    public <T extends Screen> T find(Class<T> type) {
+        Entry entry=screens.get(type);
+        return entry==null ? null : type.cast(entry.screen);
+    }
+
+    /**
+     * Disposes the live screen of the given class, if there is one.
+     */
+    public void dispose(Class<? extends Screen> type) {
+        Entry entry=screens.remove(type);
+        if (entry!=null){
+            entry.screen.dispose();
+        }
+    }
+
+    /**
+     * Logs the footprint of every live screen.
+     */
+    public void report() {
+        long heap=0;
+        long gpu=0;
+        for (Map.Entry<Class<? extends Screen>, Entry> e: screens.entrySet()){
+            Entry entry=e.getValue();
+            long entryGpu=entry.getGpuBytes();
+            Gdx.app.log("ScreenManager", e.getKey().getSimpleName()+": "+(entry.heapBytes/1024)+" KB heap, "+(entryGpu/1024)+" KB GPU");
+            heap+=entry.heapBytes;
+            gpu+=entryGpu;
+        }
+        Gdx.app.log("ScreenManager", screens.size()+" live screens: "+(heap/1024)+" KB heap, "+(gpu/1024)+" KB GPU, "
+                +(TextureCache.getLiveBytes()/1024)+" KB in the texture cache, "+creations+" built, "+reuses+" reused");
+    }
+
+    //Returns the bytes of heap in use
+    private static long usedHeap() {
+        Runtime runtime=Runtime.getRuntime();
+        return runtime.totalMemory()-runtime.freeMemory();
+    }
+
+    /**
+     * Disposes every live screen.
+     */
+    @Override
+    public void dispose() {
+        for (Entry entry: screens.values()){
+            entry.screen.dispose();
+        }
+        screens.clear();
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public int getLiveScreens() {
+        return screens.size();
+    }
+
+    public int getCreations() {
+        return creations;
+    }
+
+    public int getReuses() {
+        return reuses;
+    }
+
+    /**
+     * A live screen and the footprint measured when it was built.
+     */
+    private static class Entry {
+        private final Screen screen;
+        private final long heapBytes;
+        private final long textureBytes;
+
+        private Entry(Screen screen, long heapBytes, long textureBytes){
+            this.screen=screen;
+            this.heapBytes=heapBytes;
+            this.textureBytes=textureBytes;
+        }
+
+        //Returns the GPU bytes the screen reports, or the texture bytes it added to the cache
+        private long getGpuBytes() {
+            if (screen instanceof Footprint){
+                return ((Footprint) screen).getGpuBytes();
+            }
+            return Math.max(0,textureBytes);
+        }
+    }
+}
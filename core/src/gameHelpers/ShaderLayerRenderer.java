@@ -0,0 +1,320 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class ShaderLayerRenderer implements Disposable {
+
+    /**
+     * Draws compact tile layers on the GPU, one quad covering the whole screen per layer.
+     * The cells of each layer are uploaded once into a data texture with one texel per tile, and the
+     * regions of the tiles into a tile table texture with one texel per tile of the table. The fragment
+     * shader finds the tile under each pixel, looks its region up and samples the atlas, applying the
+     * flips and rotation of the cell. Moving the camera only changes two uniforms, the CPU builds no vertices.
+     *
+     * It needs every tile of the map in one texture with no offsets and no animations, which is what
+     * the compiled maps have. Otherwise, or if the shader does not compile, isSupported returns false
+     * and the layers must be drawn another way. The shader only uses GLSL 1.00 features, so it runs on
+     * software GL like Mesa llvmpipe.
+     *
+     * Data texel of a cell: red and green hold the index of its tile in the table, blue its flips
+     * (128 horizontal, 64 vertical) and rotation (0 to 3 quarter turns), alpha is 0 for an empty cell.
+     * Table texel of a tile: red and green hold the x of its region in the atlas, blue and alpha the y.
+     *
+     * @param supported Whether the layers can be drawn by this renderer
+     * @param shader The tilemap shader
+     * @param quad The quad covering the screen, in normalized device coordinates
+     * @param atlas The texture with every tile
+     * @param table The tile table texture
+     * @param layers The data texture of each layer
+     * @param unitScale The world units per pixel
+     * @param drawing Whether begin has been called without end
+     */
+    private static final String VERTEX_SHADER=
+            "attribute vec2 a_position;\n"
+            +"uniform vec2 u_viewOrigin;\n"
+            +"uniform vec2 u_viewSize;\n"
+            +"varying vec2 v_world;\n"
+            +"void main() {\n"
+            +"    v_world = u_viewOrigin + (a_position * 0.5 + 0.5) * u_viewSize;\n"
+            +"    gl_Position = vec4(a_position, 0.0, 1.0);\n"
+            +"}\n";
+
+    private static final String FRAGMENT_SHADER=
+            "#ifdef GL_ES\n"
+            +"precision highp float;\n"
+            +"#endif\n"
+            +"uniform sampler2D u_atlas;\n"
+            +"uniform sampler2D u_cells;\n"
+            +"uniform sampler2D u_table;\n"
+            +"uniform vec2 u_atlasSize;\n"
+            +"uniform vec2 u_layerSize;\n"
+            +"uniform vec2 u_tileSize;\n"
+            +"uniform vec2 u_tilePixels;\n"
+            +"uniform vec2 u_offset;\n"
+            +"uniform float u_tableSize;\n"
+            +"uniform float u_opacity;\n"
+            +"varying vec2 v_world;\n"
+            +"void main() {\n"
+            +"    vec2 position = (v_world - u_offset) / u_tileSize;\n"
+            +"    vec2 tile = floor(position);\n"
+            +"    if (tile.x < 0.0 || tile.y < 0.0 || tile.x >= u_layerSize.x || tile.y >= u_layerSize.y) discard;\n"
+            +"    vec4 cell = floor(texture2D(u_cells, (tile + 0.5) / u_layerSize) * 255.0 + 0.5);\n"
+            +"    if (cell.a == 0.0) discard;\n"
+            //Flips and rotation, like the corners the tiled map renderer swaps
+            +"    vec2 p = position - tile;\n"
+            +"    float rotation = mod(cell.b, 4.0);\n"
+            +"    vec2 q = p;\n"
+            +"    if (rotation == 1.0) q = vec2(p.y, 1.0 - p.x);\n"
+            +"    else if (rotation == 2.0) q = vec2(1.0 - p.x, 1.0 - p.y);\n"
+            +"    else if (rotation == 3.0) q = vec2(1.0 - p.y, p.x);\n"
+            +"    if (cell.b >= 128.0) q.x = 1.0 - q.x;\n"
+            +"    if (mod(floor(cell.b / 64.0), 2.0) == 1.0) q.y = 1.0 - q.y;\n"
+            //Region of the tile in the atlas, whose rows go from the top
+            +"    float index = cell.r + cell.g * 256.0;\n"
+            +"    vec4 region = floor(texture2D(u_table, vec2((index + 0.5) / u_tableSize, 0.5)) * 255.0 + 0.5);\n"
+            +"    vec2 origin = vec2(region.r + region.g * 256.0, region.b + region.a * 256.0);\n"
+            +"    vec2 texel = origin + vec2(q.x, 1.0 - q.y) * u_tilePixels;\n"
+            +"    vec4 color = texture2D(u_atlas, texel / u_atlasSize);\n"
+            +"    gl_FragColor = vec4(color.rgb, color.a * u_opacity);\n"
+            +"}\n";
+
+    private boolean supported=false;
+    private ShaderProgram shader;
+    private Mesh quad;
+    private Texture atlas;
+    private Texture table;
+    private final HashMap<CompactTileLayer, Texture> layers=new HashMap<>();
+    private final float unitScale;
+    private boolean drawing=false;
+
+    /**
+     * Uploads the layers and compiles the shader, if the layers can be drawn by it.
+     *
+     * @param compactLayers The layers to draw with the shader, sharing one tile table
+     * @param unitScale The world units per pixel of the map renderer
+     */
+    public ShaderLayerRenderer(ArrayList<CompactTileLayer> compactLayers, float unitScale) {
+        this.unitScale=unitScale;
+        if (compactLayers.isEmpty()){
+            return;
+        }
+        TiledMapTile[] tiles=compactLayers.get(0).getTiles();
+        String problem=check(compactLayers,tiles);
+        if (problem!=null){
+            Gdx.app.log("ShaderLayerRenderer", "Shader tilemap disabled: "+problem);
+            return;
+        }
+
+        shader=new ShaderProgram(VERTEX_SHADER,FRAGMENT_SHADER);
+        if (!shader.isCompiled()){
+            Gdx.app.log("ShaderLayerRenderer", "Shader tilemap disabled, the shader did not compile: "+shader.getLog());
+            shader.dispose();
+            shader=null;
+            return;
+        }
+
+        //Two triangles covering the screen, they never change
+        quad=new Mesh(true,4,6,new VertexAttribute(VertexAttributes.Usage.Position,2,ShaderProgram.POSITION_ATTRIBUTE));
+        quad.setVertices(new float[]{-1,-1, 1,-1, 1,1, -1,1});
+        quad.setIndices(new short[]{0,1,2, 2,3,0});
+
+        table=createTable(tiles);
+        for (CompactTileLayer layer: compactLayers){
+            layers.put(layer,createCells(layer));
+        }
+        supported=true;
+    }
+
+    /**
+     * Returns why the layers can not be drawn with the shader, or null if they can.
+     */
+    private String check(ArrayList<CompactTileLayer> compactLayers, TiledMapTile[] tiles) {
+        int maxSize=maxTextureSize();
+        if (tiles.length>maxSize){
+            return tiles.length+" tiles do not fit in a "+maxSize+" texel table";
+        }
+        for (CompactTileLayer layer: compactLayers){
+            if (layer.getTiles()!=tiles){
+                return "the layers do not share a tile table";
+            }
+            if (layer.getWidth()>maxSize || layer.getHeight()>maxSize){
+                return "layer "+layer.getName()+" is bigger than "+maxSize+" tiles";
+            }
+        }
+        for (int i=1;i<tiles.length;i++){
+            TiledMapTile tile=tiles[i];
+            if (!(tile instanceof StaticTiledMapTile)){
+                return "tile "+tile.getId()+" is animated";
+            }
+            TextureRegion region=tile.getTextureRegion();
+            if (atlas==null){
+                atlas=region.getTexture();
+            }else if (region.getTexture()!=atlas){
+                return "the tiles are in more than one texture";
+            }
+            if (tile.getOffsetX()!=0 || tile.getOffsetY()!=0){
+                return "tile "+tile.getId()+" has an offset";
+            }
+            if (region.getRegionWidth()!=compactLayers.get(0).getTileWidth() || region.getRegionHeight()!=compactLayers.get(0).getTileHeight()){
+                return "tile "+tile.getId()+" is not the size of the map tiles";
+            }
+        }
+        return atlas==null ? "the layers are empty" : null;
+    }
+
+    private static int maxTextureSize() {
+        IntBuffer size=BufferUtils.newIntBuffer(16);
+        Gdx.gl.glGetIntegerv(GL20.GL_MAX_TEXTURE_SIZE,size);
+        return size.get(0);
+    }
+
+    /**
+     * Uploads the tile table, one texel per tile with the position of its region in the atlas.
+     */
+    private static Texture createTable(TiledMapTile[] tiles) {
+        Pixmap pixmap=new Pixmap(tiles.length,1,Pixmap.Format.RGBA8888);
+        ByteBuffer pixels=pixmap.getPixels();
+        for (int i=0;i<tiles.length;i++){
+            int x=0;
+            int y=0;
+            if (tiles[i]!=null){
+                x=tiles[i].getTextureRegion().getRegionX();
+                y=tiles[i].getTextureRegion().getRegionY();
+            }
+            pixels.put(i*4,(byte) (x&0xFF));
+            pixels.put(i*4+1,(byte) (x>>>8));
+            pixels.put(i*4+2,(byte) (y&0xFF));
+            pixels.put(i*4+3,(byte) (y>>>8));
+        }
+        return createDataTexture(pixmap);
+    }
+
+    /**
+     * Uploads the cells of a layer, one texel per tile. Texel row 0 is the bottom row of the layer.
+     */
+    private static Texture createCells(CompactTileLayer layer) {
+        int[] cells=layer.getCells();
+        Pixmap pixmap=new Pixmap(layer.getWidth(),layer.getHeight(),Pixmap.Format.RGBA8888);
+        ByteBuffer pixels=pixmap.getPixels();
+        for (int i=0;i<cells.length;i++){
+            int cell=cells[i];
+            if (cell==0){
+                continue;
+            }
+            int tile=CompactTileLayer.tileOf(cell);
+            int flags=CompactTileLayer.rotationOf(cell)
+                    |(CompactTileLayer.isFlipHorizontally(cell) ? 128 : 0)
+                    |(CompactTileLayer.isFlipVertically(cell) ? 64 : 0);
+            pixels.put(i*4,(byte) (tile&0xFF));
+            pixels.put(i*4+1,(byte) (tile>>>8));
+            pixels.put(i*4+2,(byte) flags);
+            pixels.put(i*4+3,(byte) 255);
+        }
+        return createDataTexture(pixmap);
+    }
+
+    //Uploads a pixmap of data, sampled exactly with no filtering, and frees the pixmap
+    private static Texture createDataTexture(Pixmap pixmap) {
+        Texture texture=new Texture(pixmap);
+        texture.setFilter(Texture.TextureFilter.Nearest,Texture.TextureFilter.Nearest);
+        texture.setWrap(Texture.TextureWrap.ClampToEdge,Texture.TextureWrap.ClampToEdge);
+        pixmap.dispose();
+        return texture;
+    }
+
+    /**
+     * Starts drawing layers with the given view.
+     *
+     * @param viewBounds The visible area in world units, the same the projection of the batch shows
+     */
+    public void begin(Rectangle viewBounds) {
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        table.bind(2);
+        atlas.bind(1);
+        shader.bind();
+        shader.setUniformi("u_atlas",1);
+        shader.setUniformi("u_table",2);
+        shader.setUniformi("u_cells",0);
+        shader.setUniformf("u_atlasSize",atlas.getWidth(),atlas.getHeight());
+        shader.setUniformf("u_tableSize",table.getWidth());
+        shader.setUniformf("u_viewOrigin",viewBounds.x,viewBounds.y);
+        shader.setUniformf("u_viewSize",viewBounds.width,viewBounds.height);
+        drawing=true;
+    }
+
+    /**
+     * Draws a layer. Must be called between begin and end.
+     *
+     * @param layer The layer to draw
+     * @return The number of vertices submitted
+     */
+    public int draw(CompactTileLayer layer) {
+        Texture cells=layers.get(layer);
+        if (cells==null || !layer.isVisible()){
+            return 0;
+        }
+        cells.bind(0);
+        shader.setUniformf("u_layerSize",layer.getWidth(),layer.getHeight());
+        shader.setUniformf("u_tileSize",layer.getTileWidth()*unitScale,layer.getTileHeight()*unitScale);
+        shader.setUniformf("u_tilePixels",layer.getTileWidth(),layer.getTileHeight());
+        shader.setUniformf("u_offset",layer.getRenderOffsetX()*unitScale,-layer.getRenderOffsetY()*unitScale);
+        shader.setUniformf("u_opacity",layer.getOpacity());
+        quad.render(shader,GL20.GL_TRIANGLES);
+        return 4;
+    }
+
+    /**
+     * Finishes drawing layers.
+     */
+    public void end() {
+        //The batch binds its textures to the active unit
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+        drawing=false;
+    }
+
+    @Override
+    public void dispose() {
+        if (shader!=null){
+            shader.dispose();
+            quad.dispose();
+            table.dispose();
+            for (Texture texture: layers.values()){
+                texture.dispose();
+            }
+            layers.clear();
+        }
+        supported=false;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public boolean isSupported() {
+        return supported;
+    }
+
+    public boolean isDrawing() {
+        return drawing;
+    }
+}
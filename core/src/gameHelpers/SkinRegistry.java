@@ -0,0 +1,148 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class SkinRegistry implements Disposable {
+
+    /**
+     * The skins of the screens, owned by the game and shared between its screens.
+     * Each skin is parsed and its atlas uploaded the first time a screen acquires it. Screens release
+     * their skins when they are disposed, but unused skins stay loaded so the next screen that needs
+     * them, like the next test, does not parse them again. They are freed by trim or when the game ends.
+     * Skins are loaded through the asset manager of the game, so a skin preloaded by a manifest is not parsed again.
+     *
+     * @param assets The asset manager the skins are loaded through
+     * @param skins The loaded skins with their references, keyed by path
+     * @param loads The number of times each skin has been loaded into the registry, keyed by path
+     * @param hits The number of acquisitions served by an already loaded skin
+     */
+    public static final String FLAT_EARTH="Skin/flat-earth-ui.json";
+    public static final String TERRA_MOTHER="SkinDialog/terra-mother-ui.json";
+    public static final String CLOUD_FORM="SkinSettings/cloud-form-ui.json";
+
+    private final AssetManager assets;
+    private final HashMap<String, Entry> skins=new HashMap<>();
+    private final HashMap<String, Integer> loads=new HashMap<>();
+    private int hits=0;
+
+    /**
+     * Creates an empty registry.
+     *
+     * @param assets The asset manager the skins are loaded through
+     */
+    public SkinRegistry(AssetManager assets) {
+        this.assets=assets;
+    }
+
+    /**
+     * Returns the skin at the given path, loading it if it is not loaded yet.
+     * Every call must be matched by a call to release.
+     *
+     * @param path The internal path of the skin JSON file
+     * @return The shared skin
+     */
+    public Skin acquire(String path) {
+        Entry entry=skins.get(path);
+        if (entry==null){
+            boolean preloaded=assets.isLoaded(path,Skin.class);
+            entry=new Entry(AssetManifest.require(assets,path,Skin.class));
+            skins.put(path,entry);
+
+            Integer count=loads.get(path);
+            loads.put(path,count==null ? 1 : count+1);
+            Gdx.app.log("SkinRegistry", "Loaded "+path+(preloaded ? " from a manifest" : "")
+                    +" ("+loads.get(path)+" loads, "+getLoads()+" in total)");
+        }else{
+            hits+=1;
+        }
+        entry.references+=1;
+        return entry.skin;
+    }
+
+    /**
+     * Releases a skin acquired with acquire. The skin stays loaded for the next screen that needs it.
+     *
+     * @param path The internal path of the skin JSON file
+     */
+    public void release(String path) {
+        Entry entry=skins.get(path);
+        if (entry!=null && entry.references>0){
+            entry.references-=1;
+        }
+    }
+
+    /**
+     * Disposes the skins that no screen is using.
+     */
+    public void trim() {
+        Iterator<Map.Entry<String, Entry>> iterator=skins.entrySet().iterator();
+        while (iterator.hasNext()){
+            Map.Entry<String, Entry> entry=iterator.next();
+            if (entry.getValue().references==0){
+                assets.unload(entry.getKey());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Disposes every skin, used or not. Called when the game ends.
+     */
+    @Override
+    public void dispose() {
+        for (String path: skins.keySet()){
+            if (assets.contains(path)){
+                assets.unload(path);
+            }
+        }
+        skins.clear();
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    //Returns the number of times the skin at the given path has been loaded
+    public int getLoads(String path) {
+        Integer count=loads.get(path);
+        return count==null ? 0 : count;
+    }
+
+    //Returns the number of skins loaded in total
+    public int getLoads() {
+        int total=0;
+        for (Integer count: loads.values()){
+            total+=count;
+        }
+        return total;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    //Returns the number of screens using the skin at the given path
+    public int getReferences(String path) {
+        Entry entry=skins.get(path);
+        return entry==null ? 0 : entry.references;
+    }
+
+    /**
+     * A loaded skin and the number of screens using it.
+     */
+    private static class Entry {
+        private final Skin skin;
+        private int references=0;
+
+        private Entry(Skin skin){
+            this.skin=skin;
+        }
+    }
+}
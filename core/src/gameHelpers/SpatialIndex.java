@@ -0,0 +1,176 @@
+package gameHelpers;
+
+import com.badlogic.gdx.utils.LongMap;
+import model.Person;
+
+import java.util.ArrayList;
+
+public class SpatialIndex<T extends Person> {
+
+    /**
+     * A uniform grid hash of people, keyed by the integer coordinates of the cell they stand in.
+     * Each cell covers cellSize x cellSize tiles and only cells with someone in them are stored,
+     * so the cost of a lookup depends on how many people share the nearby cells and not on the
+     * total number of people or the size of the map.
+     *
+     * @param cellSize The width and height of a cell in tiles
+     * @param cells The people in each non-empty cell, keyed by the packed cell coordinates
+     * @param size The number of people in the index
+     */
+    private final int cellSize;
+    private final LongMap<ArrayList<T>> cells=new LongMap<>();
+    private int size=0;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param cellSize The width and height of a cell in tiles
+     */
+    public SpatialIndex(int cellSize) {
+        if (cellSize<1){
+            throw new IllegalArgumentException("The cell size must be at least one tile");
+        }
+        this.cellSize=cellSize;
+    }
+
+    /**
+     * Adds a person at its current position.
+     */
+    public void add(T person) {
+        long key=key(cell(person.getX()),cell(person.getY()));
+        ArrayList<T> bucket=cells.get(key);
+        if (bucket==null){
+            bucket=new ArrayList<>(4);
+            cells.put(key,bucket);
+        }
+        bucket.add(person);
+        size+=1;
+    }
+
+    /**
+     * Removes a person that was added at the given position.
+     *
+     * @return True if the person was in the index
+     */
+    public boolean remove(T person, float x, float y) {
+        long key=key(cell(x),cell(y));
+        ArrayList<T> bucket=cells.get(key);
+        if (bucket==null || !bucket.remove(person)){
+            return false;
+        }
+        if (bucket.isEmpty()){
+            cells.remove(key);
+        }
+        size-=1;
+        return true;
+    }
+
+    /**
+     * Updates the index after a person has moved. Only touches the index if the person changed cell.
+     *
+     * @param person The person that moved, already at its new position
+     * @param oldX The x-coordinate the person had when it was added or last moved
+     * @param oldY The y-coordinate the person had when it was added or last moved
+     */
+    public void move(T person, float oldX, float oldY) {
+        if (cell(oldX)==cell(person.getX()) && cell(oldY)==cell(person.getY())){
+            return;
+        }
+        if (remove(person,oldX,oldY)){
+            add(person);
+        }
+    }
+
+    /**
+     * Returns the person standing exactly at the given position, or null if there is none.
+     * If several people stand there, the last one added is returned.
+     */
+    public T get(float x, float y) {
+        ArrayList<T> bucket=cells.get(key(cell(x),cell(y)));
+        if (bucket==null){
+            return null;
+        }
+        for (int i=bucket.size()-1;i>=0;i--){
+            T person=bucket.get(i);
+            if (person.getX()==x && person.getY()==y){
+                return person;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds to the result list every person within the given distance of a position.
+     *
+     * @param x The x-coordinate of the center
+     * @param y The y-coordinate of the center
+     * @param radius The maximum distance in tiles
+     * @param result The list the people found are added to, it is not cleared
+     */
+    public void query(float x, float y, float radius, ArrayList<T> result) {
+        float radius2=radius*radius;
+        int lastX=cell(x+radius);
+        int lastY=cell(y+radius);
+        for (int cellY=cell(y-radius);cellY<=lastY;cellY++){
+            for (int cellX=cell(x-radius);cellX<=lastX;cellX++){
+                ArrayList<T> bucket=cells.get(key(cellX,cellY));
+                if (bucket==null){
+                    continue;
+                }
+                for (int i=0;i<bucket.size();i++){
+                    T person=bucket.get(i);
+                    float dx=person.getX()-x;
+                    float dy=person.getY()-y;
+                    if (dx*dx+dy*dy<=radius2){
+                        result.add(person);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the nearest person within the given distance of a position, or null if there is none.
+     */
+    public T nearest(float x, float y, float radius) {
+        T nearest=null;
+        float nearestDistance2=radius*radius;
+        int lastX=cell(x+radius);
+        int lastY=cell(y+radius);
+        for (int cellY=cell(y-radius);cellY<=lastY;cellY++){
+            for (int cellX=cell(x-radius);cellX<=lastX;cellX++){
+                ArrayList<T> bucket=cells.get(key(cellX,cellY));
+                if (bucket==null){
+                    continue;
+                }
+                for (int i=0;i<bucket.size();i++){
+                    T person=bucket.get(i);
+                    float dx=person.getX()-x;
+                    float dy=person.getY()-y;
+                    float distance2=dx*dx+dy*dy;
+                    if (distance2<=nearestDistance2){
+                        nearest=person;
+                        nearestDistance2=distance2;
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate/cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX<<32)|(cellY&0xFFFFFFFFL);
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public int size() {
+        return size;
+    }
+}
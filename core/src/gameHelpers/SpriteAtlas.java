@@ -0,0 +1,96 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+public class SpriteAtlas {
+
+    /**
+     * Gives access to the atlas with every character, NPC and portrait sprite, packed at build time
+     * by the packPeople Gradle task. Regions are looked up with the same paths the loose PNGs have,
+     * for example "People/Secundarios/prueba1.png" is the region "Secundarios/prueba1".
+     *
+     * @param assets The asset manager of the game, or null to load the atlas directly
+     * @param atlas The packed atlas, or null if it has not been generated
+     * @param loaded Whether the atlas has already been looked for
+     */
+    public static final String ATLAS_PATH="Atlas/people.atlas";
+    private static final String PEOPLE_FOLDER="People/";
+
+    private static AssetManager assets;
+    private static TextureAtlas atlas;
+    private static boolean loaded=false;
+
+    /**
+     * Finds the region of the atlas that holds the image of the given path.
+     *
+     * @param url The internal path of the loose image, such as "People/ChicoProtagonista/frente.png"
+     * @return The region of the image, or null if the atlas does not exist or does not contain it.
+     *         A sprite missing from an atlas that exists is logged as an error, the atlas is out of date
+     */
+    public static TextureRegion findRegion(String url){
+        if (!loaded){
+            load();
+        }
+        if (atlas==null || !url.startsWith(PEOPLE_FOLDER)){
+            return null;
+        }
+
+        //Remove the People folder and the extension to get the region name
+        int extension=url.lastIndexOf('.');
+        if (extension<PEOPLE_FOLDER.length()){
+            extension=url.length();
+        }
+        String name=url.substring(PEOPLE_FOLDER.length(),extension);
+        TextureRegion region=atlas.findRegion(name);
+        if (region==null){
+            //The caller falls back to the loose image, which costs its own texture and bind
+            Gdx.app.error("SpriteAtlas", "The region "+name+" is not in "+ATLAS_PATH+", run the packPeople task again");
+        }
+        return region;
+    }
+
+    /**
+     * Loads the atlas if it has been packed. If not, lookups return null and callers use the loose images.
+     */
+    private static void load(){
+        loaded=true;
+        if (exists()){
+            //If a manifest preloaded the atlas, this only takes a reference to it
+            atlas=assets!=null ? AssetManifest.require(assets,ATLAS_PATH,TextureAtlas.class) : new TextureAtlas(Gdx.files.internal(ATLAS_PATH));
+        }else{
+            Gdx.app.log("SpriteAtlas", ATLAS_PATH+" not found, run the packPeople task to pack the sprites");
+        }
+    }
+
+    /**
+     * Returns true if the atlas has been packed.
+     */
+    public static boolean exists(){
+        return Gdx.files.internal(ATLAS_PATH).exists();
+    }
+
+    /**
+     * Disposes the atlas textures, or gives the atlas back to the asset manager that loaded it.
+     */
+    public static void dispose(){
+        if (atlas!=null){
+            if (assets!=null){
+                if (assets.contains(ATLAS_PATH)){
+                    assets.unload(ATLAS_PATH);
+                }
+            }else{
+                atlas.dispose();
+            }
+            atlas=null;
+        }
+        loaded=false;
+    }
+
+    //Sets the asset manager the atlas is loaded through. Must be set before the atlas is first used
+    public static void setAssetManager(AssetManager manager){
+        assets=manager;
+    }
+}
@@ -0,0 +1,223 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class StaticLayerCache implements Disposable {
+
+    /**
+     * Keeps the tile layers that never change baked in a SpriteCache, split in square chunks.
+     * Every chunk is uploaded once when the cache is built, and drawing a frame only submits the
+     * chunks that intersect the camera instead of every visible cell.
+     *
+     * @param cache The sprite cache with the geometry of every chunk
+     * @param layers The chunks of each cached layer, keyed by layer
+     * @param chunkWorldWidth The width of a chunk in world units
+     * @param chunkWorldHeight The height of a chunk in world units
+     */
+    public static final int CHUNK_SIZE=16;
+
+    private final SpriteCache cache;
+    private final HashMap<CompactTileLayer, Chunks> layers=new HashMap<>();
+    private final float chunkWorldWidth;
+    private final float chunkWorldHeight;
+
+    private boolean drawing=false;
+
+    /**
+     * Bakes the given layers into chunks. Layers with animated tiles can not be cached and are ignored.
+     *
+     * @param staticLayers The layers to cache
+     * @param unitScale The world units per pixel of the map renderer
+     * @param tileWidth The width of a tile in pixels
+     * @param tileHeight The height of a tile in pixels
+     */
+    public StaticLayerCache(ArrayList<CompactTileLayer> staticLayers, float unitScale, int tileWidth, int tileHeight) {
+        chunkWorldWidth=CHUNK_SIZE*tileWidth*unitScale;
+        chunkWorldHeight=CHUNK_SIZE*tileHeight*unitScale;
+
+        //Count the cells first, the sprite cache needs its size up front
+        int size=0;
+        for (CompactTileLayer layer: staticLayers){
+            if (isStatic(layer)){
+                size+=layer.countCells();
+            }
+        }
+        cache=new SpriteCache(Math.max(size,1),false);
+
+        Sprite sprite=new Sprite();
+        for (CompactTileLayer layer: staticLayers){
+            if (isStatic(layer)){
+                layers.put(layer,bake(layer,sprite,unitScale));
+            }
+        }
+    }
+
+    /**
+     * Returns true if the layer has no animated tiles, so its cells can be baked once.
+     */
+    public static boolean isStatic(CompactTileLayer layer) {
+        TiledMapTile[] tiles=layer.getTiles();
+        for (int cell: layer.getCells()){
+            if (tiles[cell&CompactTileLayer.TILE_MASK] instanceof AnimatedTiledMapTile){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds every chunk of the layer to the sprite cache.
+     */
+    private Chunks bake(CompactTileLayer layer, Sprite sprite, float unitScale) {
+        float tileWidth=layer.getTileWidth()*unitScale;
+        float tileHeight=layer.getTileHeight()*unitScale;
+        //The offset of the layer, y down in Tiled like the tiled map renderer reads it
+        float offsetX=layer.getRenderOffsetX()*unitScale;
+        float offsetY=-layer.getRenderOffsetY()*unitScale;
+        Chunks chunks=new Chunks((layer.getWidth()+CHUNK_SIZE-1)/CHUNK_SIZE, (layer.getHeight()+CHUNK_SIZE-1)/CHUNK_SIZE,
+                offsetX, offsetY);
+
+        for (int chunkY=0;chunkY<chunks.rows;chunkY++){
+            for (int chunkX=0;chunkX<chunks.columns;chunkX++){
+                int cells=0;
+                for (int y=chunkY*CHUNK_SIZE;y<Math.min((chunkY+1)*CHUNK_SIZE,layer.getHeight());y++){
+                    for (int x=chunkX*CHUNK_SIZE;x<Math.min((chunkX+1)*CHUNK_SIZE,layer.getWidth());x++){
+                        TiledMapTile tile=layer.getTile(x,y);
+                        if (tile==null){
+                            continue;
+                        }
+                        int cell=layer.getCell(x,y);
+
+                        //Place the tile like the tiled map renderer does, with its flips and rotation
+                        sprite.setRegion(tile.getTextureRegion());
+                        sprite.setFlip(CompactTileLayer.isFlipHorizontally(cell),CompactTileLayer.isFlipVertically(cell));
+                        sprite.setBounds(x*tileWidth+offsetX+tile.getOffsetX()*unitScale, y*tileHeight+offsetY+tile.getOffsetY()*unitScale,
+                                tileWidth, tileHeight);
+                        sprite.setOriginCenter();
+                        sprite.setRotation(CompactTileLayer.rotationOf(cell)*90);
+                        sprite.setColor(1,1,1,layer.getOpacity());
+                        if (cells==0){
+                            //Empty chunks get no cache
+                            cache.beginCache();
+                        }
+                        cache.add(sprite);
+                        cells+=1;
+                    }
+                }
+                int index=chunkY*chunks.columns+chunkX;
+                chunks.ids[index]=cells>0 ? cache.endCache() : -1;
+                chunks.cells[index]=cells;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns true if the layer is baked in this cache.
+     */
+    public boolean contains(CompactTileLayer layer) {
+        return layers.containsKey(layer);
+    }
+
+    /**
+     * Starts drawing cached layers with the given projection.
+     */
+    public void begin(Matrix4 projection) {
+        cache.setProjectionMatrix(projection);
+        //The sprite cache does not blend by itself, and the decoration tiles are transparent
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        cache.begin();
+        drawing=true;
+    }
+
+    /**
+     * Draws the chunks of a cached layer that intersect the view. Must be called between begin and end.
+     *
+     * @param layer The layer to draw
+     * @param viewBounds The visible area in world units
+     * @return The number of vertices submitted
+     */
+    public int draw(CompactTileLayer layer, Rectangle viewBounds) {
+        Chunks chunks=layers.get(layer);
+        if (chunks==null || !layer.isVisible()){
+            return 0;
+        }
+
+        //Range of chunks that intersect the view, moved back by the offset the chunks were baked with
+        float viewX=viewBounds.x-chunks.offsetX;
+        float viewY=viewBounds.y-chunks.offsetY;
+        int firstX=Math.max(0,(int) Math.floor(viewX/chunkWorldWidth));
+        int firstY=Math.max(0,(int) Math.floor(viewY/chunkWorldHeight));
+        int lastX=Math.min(chunks.columns-1,(int) Math.floor((viewX+viewBounds.width)/chunkWorldWidth));
+        int lastY=Math.min(chunks.rows-1,(int) Math.floor((viewY+viewBounds.height)/chunkWorldHeight));
+
+        int vertices=0;
+        for (int y=firstY;y<=lastY;y++){
+            for (int x=firstX;x<=lastX;x++){
+                int index=y*chunks.columns+x;
+                if (chunks.cells[index]>0){
+                    cache.draw(chunks.ids[index]);
+                    vertices+=chunks.cells[index]*4;
+                }
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Finishes drawing cached layers.
+     */
+    public void end() {
+        cache.end();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+        drawing=false;
+    }
+
+    @Override
+    public void dispose() {
+        cache.dispose();
+        layers.clear();
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public boolean isDrawing() {
+        return drawing;
+    }
+
+    /**
+     * The cache ids and cell counts of the chunks of one layer, in row-major order,
+     * and the offset of the layer in world units.
+     */
+    private static class Chunks {
+        private final int columns;
+        private final int rows;
+        private final int[] ids;
+        private final int[] cells;
+        private final float offsetX;
+        private final float offsetY;
+
+        private Chunks(int columns, int rows, float offsetX, float offsetY){
+            this.columns=columns;
+            this.rows=rows;
+            this.offsetX=offsetX;
+            this.offsetY=offsetY;
+            ids=new int[columns*rows];
+            cells=new int[columns*rows];
+        }
+    }
+}
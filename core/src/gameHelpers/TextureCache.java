@@ -0,0 +1,160 @@
+package gameHelpers;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+
+import java.util.HashMap;
+
+public class TextureCache {
+
+    /**
+     * A shared registry of textures, reference counted by path.
+     * Every caller that acquires a path gets the same Texture object, and the texture is only
+     * disposed once every caller has released it.
+     * When the game has set its asset manager, textures are loaded through it and the registry holds one
+     * reference of the manager for each texture, so textures preloaded by a manifest are not read again.
+     *
+     * @param assets The asset manager of the game, or null to load the textures directly
+     * @param entries The textures currently loaded, keyed by their internal path
+     * @param hits The number of acquires served by an already loaded texture
+     * @param misses The number of acquires that had to load the texture from disk
+     * @param liveBytes The estimated GPU memory used by the loaded textures
+     */
+    private static final HashMap<String, Entry> entries=new HashMap<>();
+    private static AssetManager assets;
+
+    private static int hits=0;
+    private static int misses=0;
+    private static long liveBytes=0;
+
+    /**
+     * Returns the texture for the given path, loading it only if it is not already loaded.
+     * Each call must be matched by a call to release with the same path.
+     *
+     * @param path The internal path of the texture
+     * @return The shared texture for that path
+     */
+    public static Texture acquire(String path){
+        Entry entry=entries.get(path);
+        if (entry==null){
+            //If the texture is not loaded, load it and register it
+            misses+=1;
+            entry=new Entry(assets!=null ? AssetManifest.require(assets,path,Texture.class) : new Texture(path));
+            entries.put(path,entry);
+            liveBytes+=entry.bytes;
+        }else{
+            hits+=1;
+        }
+        entry.references+=1;
+        return entry.texture;
+    }
+
+    /**
+     * Releases one reference to the texture of the given path.
+     * When no references are left, the texture is disposed and removed from the registry.
+     *
+     * @param path The internal path of the texture
+     */
+    public static void release(String path){
+        Entry entry=entries.get(path);
+        if (entry==null){
+            return;
+        }
+        entry.references-=1;
+        if (entry.references<=0){
+            //Nobody uses the texture anymore, free the GPU memory
+            entries.remove(path);
+            liveBytes-=entry.bytes;
+            dispose(path,entry);
+        }
+    }
+
+    /**
+     * Disposes every loaded texture, whatever its reference count. Used when closing the game.
+     */
+    public static void clear(){
+        for (String path: entries.keySet()){
+            dispose(path,entries.get(path));
+        }
+        entries.clear();
+        liveBytes=0;
+    }
+
+    //Disposes a texture, or gives its reference back to the asset manager that loaded it
+    private static void dispose(String path, Entry entry){
+        if (entry.managed){
+            if (assets.contains(path)){
+                assets.unload(path);
+            }
+        }else{
+            entry.texture.dispose();
+        }
+    }
+
+    /**
+     * Estimates the memory used by a texture from its size and pixel format.
+     */
+    public static long sizeOf(Texture texture){
+        int bytesPerPixel;
+        Pixmap.Format format=texture.getTextureData().getFormat();
+        switch (format){
+            case Alpha:
+            case Intensity:
+                bytesPerPixel=1;
+                break;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                bytesPerPixel=2;
+                break;
+            case RGB888:
+                bytesPerPixel=3;
+                break;
+            default:
+                bytesPerPixel=4;
+        }
+        return (long) texture.getWidth()*texture.getHeight()*bytesPerPixel;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public static int getHits() {
+        return hits;
+    }
+
+    public static int getMisses() {
+        return misses;
+    }
+
+    public static long getLiveBytes() {
+        return liveBytes;
+    }
+
+    public static int getLiveTextures() {
+        return entries.size();
+    }
+
+    //Sets the asset manager the textures are loaded through. Must be set before any texture is acquired
+    public static void setAssetManager(AssetManager manager) {
+        assets=manager;
+    }
+
+    /**
+     * A loaded texture together with its reference count and estimated size.
+     */
+    private static class Entry {
+        private final Texture texture;
+        private final long bytes;
+        private final boolean managed;
+        private int references=0;
+
+        private Entry(Texture texture){
+            this.texture=texture;
+            this.bytes=sizeOf(texture);
+            this.managed=assets!=null;
+        }
+    }
+}
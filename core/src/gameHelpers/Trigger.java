@@ -0,0 +1,81 @@
+package gameHelpers;
+
+import com.badlogic.gdx.maps.MapProperties;
+
+public class Trigger {
+
+    /**
+     * An event that happens when the player steps on a tile, read from the triggers layer of the map.
+     * Portals teleport the player, dialogs show a text and tests show a text and start a test on ENTER.
+     *
+     * @param type The kind of trigger, from the "trigger" property of the map object
+     * @param targetX The x-coordinate a portal teleports to
+     * @param targetY The y-coordinate a portal teleports to
+     * @param text The text shown by dialog and test triggers
+     * @param testNumber The test started by a test trigger
+     */
+    public enum Type { PORTAL, DIALOG, TEST }
+
+    private final Type type;
+    private final int targetX;
+    private final int targetY;
+    private final String text;
+    private final int testNumber;
+
+    private Trigger(Type type, int targetX, int targetY, String text, int testNumber) {
+        this.type=type;
+        this.targetX=targetX;
+        this.targetY=targetY;
+        this.text=text;
+        this.testNumber=testNumber;
+    }
+
+    /**
+     * Creates a trigger from the properties of a map object.
+     *
+     * @param properties The properties of the object
+     * @return The trigger, or null if the object has no known "trigger" property
+     */
+    public static Trigger fromProperties(MapProperties properties) {
+        String trigger=properties.get("trigger","",String.class);
+        if (trigger.equalsIgnoreCase("portal")){
+            return new Trigger(Type.PORTAL,
+                    properties.get("targetX",0,Integer.class),
+                    properties.get("targetY",0,Integer.class),
+                    null,0);
+        }
+        if (trigger.equalsIgnoreCase("dialog")){
+            return new Trigger(Type.DIALOG,0,0,properties.get("text","",String.class),0);
+        }
+        if (trigger.equalsIgnoreCase("test")){
+            return new Trigger(Type.TEST,0,0,
+                    properties.get("text","",String.class),
+                    properties.get("test",0,Integer.class));
+        }
+        return null;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getTargetX() {
+        return targetX;
+    }
+
+    public int getTargetY() {
+        return targetY;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getTestNumber() {
+        return testNumber;
+    }
+}
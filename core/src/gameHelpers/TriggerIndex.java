@@ -0,0 +1,102 @@
+package gameHelpers;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Rectangle;
+
+public class TriggerIndex {
+
+    /**
+     * The triggers of the map, looked up by tile.
+     * Every tile covered by a trigger rectangle of the triggers layer points to its trigger,
+     * so finding the trigger under the player is a single array read however many triggers there are.
+     *
+     * @param width The width of the map in tiles
+     * @param height The height of the map in tiles
+     * @param tiles The trigger on each tile in row-major order, null if there is none
+     */
+    private final int width;
+    private final int height;
+    private final Trigger[] tiles;
+
+    /**
+     * Creates an empty trigger index for a map of the given size.
+     *
+     * @param width The width of the map in tiles
+     * @param height The height of the map in tiles
+     */
+    public TriggerIndex(int width, int height) {
+        this.width=width;
+        this.height=height;
+        tiles=new Trigger[width*height];
+    }
+
+    /**
+     * Creates the trigger index of a map, with the triggers of its trigger layer.
+     *
+     * @param map The map
+     * @return The trigger index of the map
+     */
+    public static TriggerIndex of(TiledMap map) {
+        MapProperties properties=map.getProperties();
+        TriggerIndex index=new TriggerIndex(properties.get("width",0,Integer.class),properties.get("height",0,Integer.class));
+        index.addLayer(LayerRole.find(map.getLayers(),LayerRole.TRIGGER),
+                properties.get("tilewidth",16,Integer.class),
+                properties.get("tileheight",16,Integer.class));
+        return index;
+    }
+
+    /**
+     * Reads the rectangle objects of a triggers layer and places their triggers on the tiles they cover.
+     *
+     * @param layer The triggers layer, may be null if the map has none
+     * @param tileWidth The width of a tile in pixels
+     * @param tileHeight The height of a tile in pixels
+     */
+    public void addLayer(MapLayer layer, int tileWidth, int tileHeight) {
+        if (layer==null){
+            return;
+        }
+        for (MapObject object: layer.getObjects()){
+            if (!(object instanceof RectangleMapObject)){
+                continue;
+            }
+            Trigger trigger=Trigger.fromProperties(object.getProperties());
+            if (trigger==null){
+                continue;
+            }
+            Rectangle rectangle=((RectangleMapObject) object).getRectangle();
+            int firstX=(int) Math.floor(rectangle.x/tileWidth);
+            int firstY=(int) Math.floor(rectangle.y/tileHeight);
+            int lastX=(int) Math.ceil((rectangle.x+rectangle.width)/tileWidth)-1;
+            int lastY=(int) Math.ceil((rectangle.y+rectangle.height)/tileHeight)-1;
+            for (int y=firstY;y<=lastY;y++){
+                for (int x=firstX;x<=lastX;x++){
+                    put(x,y,trigger);
+                }
+            }
+        }
+    }
+
+    /**
+     * Places a trigger on a tile. Tiles outside the map are ignored.
+     */
+    public void put(int x, int y, Trigger trigger) {
+        if (x>=0 && y>=0 && x<width && y<height){
+            tiles[x+y*width]=trigger;
+        }
+    }
+
+    /**
+     * Returns the trigger on a tile, or null if there is none.
+     */
+    public Trigger get(int x, int y) {
+        if (x<0 || y<0 || x>=width || y>=height){
+            return null;
+        }
+        return tiles[x+y*width];
+    }
+}
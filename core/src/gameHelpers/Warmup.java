@@ -0,0 +1,110 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.ArrayList;
+
+public class Warmup {
+
+    /**
+     * Prepares something in steps spread over several frames, so the work that must run on the render
+     * thread does not make a single frame long. Every frame update runs steps until the budget of the
+     * frame is used, and always at least one, so a step longer than the budget takes a frame of its own.
+     * A step can also wait for work done elsewhere, like a parse on a worker thread, by saying it is not
+     * ready. It is then run again on the next frame.
+     *
+     * @param name The name of what is prepared, for the log
+     * @param budget The nanoseconds of each frame the steps may take
+     * @param steps The steps in the order they run
+     * @param next The index of the next step to run
+     * @param frames The number of frames that ran steps
+     * @param busy The nanoseconds spent running steps
+     */
+    private final String name;
+    private final long budget;
+    private final ArrayList<Step> steps=new ArrayList<>();
+    private int next=0;
+    private int frames=0;
+    private long busy=0;
+
+    /**
+     * A part of the work. Returns false if it can not run yet and must be tried again on the next frame.
+     */
+    public interface Step {
+        boolean run();
+    }
+
+    /**
+     * Creates an empty warm-up.
+     *
+     * @param name The name of what is prepared, for the log
+     * @param budgetMillis The milliseconds of each frame the steps may take
+     */
+    public Warmup(String name, float budgetMillis) {
+        this.name=name;
+        this.budget=(long) (budgetMillis*1000000);
+    }
+
+    public Warmup add(Step step) {
+        steps.add(step);
+        return this;
+    }
+
+    /**
+     * Runs the steps that fit the budget of this frame.
+     *
+     * @return True if every step has run
+     */
+    public boolean update() {
+        if (isDone()){
+            return true;
+        }
+        long start=TimeUtils.nanoTime();
+        frames+=1;
+        do {
+            if (!steps.get(next).run()){
+                break;
+            }
+            next+=1;
+        } while (next<steps.size() && TimeUtils.timeSinceNanos(start)<budget);
+        busy+=TimeUtils.timeSinceNanos(start);
+
+        if (isDone()){
+            Gdx.app.log("Warmup", name+" ready in "+frames+" frames, "+TimeUtils.nanosToMillis(busy)+" ms of work");
+        }
+        return isDone();
+    }
+
+    /**
+     * Runs every step left now. Steps that are not ready are skipped, so the steps after one that waits
+     * must wait themselves for what they need.
+     */
+    public void finish() {
+        long start=TimeUtils.nanoTime();
+        int left=steps.size()-next;
+        while (next<steps.size()){
+            steps.get(next).run();
+            next+=1;
+        }
+        if (left>0){
+            Gdx.app.log("Warmup", name+" finished "+left+" steps on demand in "+TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(start))+" ms");
+        }
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public boolean isDone() {
+        return next==steps.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+}
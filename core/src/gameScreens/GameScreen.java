@@ -1,18 +1,37 @@
 package gameScreens;
 
+import gameHelpers.AssetManifest;
+import gameHelpers.BinaryMapLoader;
+import gameHelpers.CollisionGrid;
+import gameHelpers.CompactTileLayer;
+import gameHelpers.DialogText;
+import gameHelpers.FixedTimestep;
 import gameHelpers.GameRenderer;
 import gameHelpers.GameUpdater;
+import gameHelpers.InputQueue;
+import gameHelpers.LivesHud;
+import gameHelpers.PortraitCache;
+import gameHelpers.RenderBenchmark;
+import gameHelpers.ScreenManager;
+import gameHelpers.SkinRegistry;
+import gameHelpers.SpriteAtlas;
+import gameHelpers.TextureCache;
+import gameHelpers.Trigger;
+import gameHelpers.TriggerIndex;
 import IO.ReadPeople;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -33,8 +52,9 @@ import model.Player;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 
-public class GameScreen extends ScreenAdapter{
+public class GameScreen extends ScreenAdapter implements ScreenManager.Footprint {
 
     /**
      * Represents the game state, including the game object, the map, player and NPC information, camera, collision layer,
@@ -45,11 +65,25 @@ public class GameScreen extends ScreenAdapter{
      * @param playerName The name of the player
      * @param gender The gender of the player
      * @param camera The OrthographicCamera object representing the game camera
-     * @param collisionLayer The TiledMapTileLayer object representing the collision layer of the game map
      * @param player The Player object representing the player in the game
      * @param npc The ArrayList of NPC objects representing the non
      */
 
+    //Bytes of loose portrait textures kept loaded, and tiles ahead of the player to prefetch portraits
+    private static final long PORTRAIT_BUDGET=256*1024;
+    private static final int PORTRAIT_PREFETCH_RANGE=4;
+
+    //The map compiled by the compileMap task, and its source used when it has not been compiled
+    private static final String COMPILED_MAP="Map/icaiMap"+BinaryMapLoader.EXTENSION;
+    private static final String TMX_MAP="Map/icaiMap.tmx";
+    private static final String GEAR="Lives/gear.png";
+
+    //Simulation steps run at most in a frame before the game drops time to catch up
+    private static final int MAX_TICKS_PER_FRAME=5;
+
+    //Characters of the dialogs typed per second
+    private static final float DIALOG_CHARS_PER_SECOND=60;
+
     private Game game;
 
     private TiledMap map;
@@ -58,7 +92,6 @@ public class GameScreen extends ScreenAdapter{
     private String gender;
 
     private OrthographicCamera camera;
-    private TiledMapTileLayer collisionLayer;
 
     //People
     private Player player;
@@ -69,6 +102,9 @@ public class GameScreen extends ScreenAdapter{
     //Game helpers
     private GameRenderer gameRenderer;
     private GameUpdater gameUpdater;
+    private RenderBenchmark renderBenchmark;
+    private FixedTimestep timestep;
+    private InputQueue inputQueue;
 
     //Skins
     private Skin skinDialog;
@@ -80,22 +116,48 @@ public class GameScreen extends ScreenAdapter{
     private Stage stageLives;
 
     //Dialog variables
-    private Label label;
+    private DialogText dialogText;
     private Image portrait;
+    private PortraitCache portraitCache;
     private boolean draw=false;
     private boolean write=false;
     private boolean interacting=false;
     private NPC npcInteract;
-    private int count=0;
-    private int letterCount=0;
+    private int interactTest=0;
     private String text;
 
     //Lives and settings variables
-    private Image lives;
+    private LivesHud livesHud;
     private Button settings;
     private Dialog settingsBox;
 
 
+    /**
+     * Returns the assets the screen needs before it is built: the map with its tilesets, the skins,
+     * the lives textures and the sprite atlas if it has been packed.
+     */
+    public static AssetManifest manifest() {
+        AssetManifest manifest=new AssetManifest()
+                .add(mapPath(), TiledMap.class)
+                .add(SkinRegistry.TERRA_MOTHER, Skin.class)
+                .add(SkinRegistry.FLAT_EARTH, Skin.class)
+                .add(SkinRegistry.CLOUD_FORM, Skin.class)
+                .add(GEAR, Texture.class)
+                .addAll(LivesHud.manifest());
+        if (mapPath().equals(TMX_MAP)){
+            Gdx.app.log("GameScreen", COMPILED_MAP+" not found, run the compileMap task to compile the map");
+        }
+        if (SpriteAtlas.exists()){
+            manifest.add(SpriteAtlas.ATLAS_PATH, TextureAtlas.class);
+        }
+        return manifest;
+    }
+
+    //Returns the path of the compiled map, or of the TMX map if it has not been compiled
+    private static String mapPath() {
+        return Gdx.files.internal(COMPILED_MAP).exists() ? COMPILED_MAP : TMX_MAP;
+    }
+
     /**
      * Constructs a new GameScreen object, which is responsible for rendering the game world and handling game logic.
      *
@@ -112,10 +174,16 @@ public class GameScreen extends ScreenAdapter{
 
         batch = new SpriteBatch();
 
-        map = new TmxMapLoader().load("Map/icaiMap.tmx");
+        timestep = new FixedTimestep(game.getTickRate(), MAX_TICKS_PER_FRAME);
+
+        //The map is owned by the asset manager, loaded with the manifest of the screen
+        map = game.getAssets().get(mapPath(), TiledMap.class);
+        //The renderer and the collisions work on compact layers, a compiled map already has them
+        CompactTileLayer.compact(map);
 
         stageDialog = new Stage(new ScreenViewport());
         stageLives=new Stage(new ScreenViewport());
+        livesHud=new LivesHud(stageLives,10,575);
 
         loadSkins();
 
@@ -123,8 +191,6 @@ public class GameScreen extends ScreenAdapter{
 
         createSettingsBox();
 
-        collisionLayer = (TiledMapTileLayer) map.getLayers().get("Colisiones");
-
         player=new Player(
                 (float) Double.parseDouble(saveData.get(keys.get(4))),
                 (float) Double.parseDouble(saveData.get(keys.get(5))),
@@ -134,12 +200,13 @@ public class GameScreen extends ScreenAdapter{
         //Read and load people from a JSON file (in ReadPeople class)
         npc=ReadPeople.loadPeople();
 
-        gameUpdater = new GameUpdater(player,collisionLayer,npc);
+        //Keyboard and gamepad commands, set as input processor when the screen is shown
+        inputQueue = new InputQueue();
+        gameUpdater = new GameUpdater(player,CollisionGrid.of(map),TriggerIndex.of(map),npc,inputQueue);
 
         //Set camera to initial values
         camera = new OrthographicCamera();
         camera.setToOrtho(false, 24,16 );
-        batch.setProjectionMatrix(camera.combined);
 
         //Add people to gameRenderer
         gameRenderer = new GameRenderer(map,batch);
@@ -148,6 +215,7 @@ public class GameScreen extends ScreenAdapter{
             gameRenderer.addPerson(p);
         }
         gameRenderer.setView(camera);
+        renderBenchmark = new RenderBenchmark();
 
     }
 
@@ -157,21 +225,28 @@ public class GameScreen extends ScreenAdapter{
      * The skin files are in JSON format and are loaded using the LibGDX framework.
      */
     private void loadSkins() {
-        skinDialog = new Skin(Gdx.files.internal("SkinDialog/terra-mother-ui.json"));
-        skin = new Skin(Gdx.files.internal("Skin/flat-earth-ui.json"));
-        skinSettings=new Skin(Gdx.files.internal("SkinSettings/cloud-form-ui.json"));
+        skinDialog = game.getSkins().acquire(SkinRegistry.TERRA_MOTHER);
+        skin = game.getSkins().acquire(SkinRegistry.FLAT_EARTH);
+        skinSettings=game.getSkins().acquire(SkinRegistry.CLOUD_FORM);
     }
 
     /**
-     * Creates a dialog blueprint with a label of a specific size and position.
-     * The label is added to the stage of the dialog.
+     * Creates a dialog blueprint with a dialog text of a specific size and position.
+     * The dialog text is added to the stage of the dialog.
      */
     private void createDialogBlueprint() {
-        label = new Label("",skinDialog,"year199x");
-        label.setSize(850, 120);
-        label.setPosition(100,0);
-
-        stageDialog.addActor(label);
+        dialogText = new DialogText(skinDialog.get("year199x", Label.LabelStyle.class), DIALOG_CHARS_PER_SECOND);
+        dialogText.setSize(850, 120);
+        dialogText.setPosition(100,0);
+
+        stageDialog.addActor(dialogText);
+
+        //The portrait image is reused, only its drawable changes between dialogs
+        portraitCache=new PortraitCache(PORTRAIT_BUDGET);
+        portrait=new Image();
+        portrait.setPosition(0,0);
+        portrait.setSize(100,100);
+        stageDialog.addActor(portrait);
     }
 
     /**
@@ -182,10 +257,20 @@ public class GameScreen extends ScreenAdapter{
     private void createSettingsBox() {
 
         //Create settings button
-        Image gear=new Image(new Texture("Lives/gear.png"));
+        Image gear=new Image(TextureCache.acquire(GEAR));
         settings = new Button(gear,skin,"clear");
         settings.setPosition(860,575);
 
+        //Adds a click listener to the settings button that shows the settings box when clicked.
+        settings.addListener(new ClickListener(){
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                settingsBox.show(stageLives);
+                settingsBox.setVisible(true);
+            }
+        });
+        stageLives.addActor(settings);
+
         //Initialize setting window
         settingsBox=new Dialog("CONFIGURACION",skinSettings,"dialog");
         settingsBox.setSize(250,250);
@@ -250,7 +335,10 @@ public class GameScreen extends ScreenAdapter{
     }
 
     /**
-     * Renders the game screen by clearing the screen, updating the game renderer, cycling the game, and drawing the lives.
+     * Renders the game screen by clearing the screen, cycling the game, updating the game renderer and drawing the dialog and the lives.
+     * The game is cycled in fixed steps of the tick rate, as many as the time since the last render covers, so the
+     * movement and the dialog run at the same speed whatever the frame rate is. The people are drawn between their
+     * positions of the last two steps.
      *
      * @param delta The time in seconds since the last render.
      */
@@ -260,12 +348,27 @@ public class GameScreen extends ScreenAdapter{
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        updateGameRenderer();
+        checkDebugKeys();
+
+        renderBenchmark.beginFrame();
 
-        gameCycle(delta);
+        int ticks = timestep.advance(delta);
+        for (int i=0;i<ticks;i++){
+            inputQueue.poll();
+            gameCycle(timestep.getStep());
+            if (game.getScreen()!=this){
+                //A test or another screen was started, this screen must not keep running
+                return;
+            }
+        }
+
+        updateGameRenderer(timestep.getAlpha());
+
+        drawDialog(delta);
 
         drawLives(delta);
 
+        renderBenchmark.endFrame();
     }
 
     /**
@@ -273,12 +376,15 @@ public class GameScreen extends ScreenAdapter{
      * If an interaction is detected, the appropriate NPC dialog is displayed and
      * the game state is updated accordingly.
      *
-     * @param delta The time elapsed since the last frame
+     * @param delta The duration of a simulation step
      */
     private void gameCycle(float delta) {
         NPCTest npcInteractTest;
         NPCNoTest npcInteractNoTest;
 
+        //Upload the decoded portraits, also while a dialog waits for its own
+        portraitCache.update();
+
         /**
          * Checks if the player is interacting with an NPC and updates the game accordingly.
          * If the player is interacting with an NPC, the NPC's dialog is displayed along with their portrait.
@@ -288,6 +394,12 @@ public class GameScreen extends ScreenAdapter{
 
             gameUpdater.update(delta);
 
+            //Prefetch the portrait of the NPC the player is heading to, so the dialog opens without loading it
+            NPC npcAhead = gameUpdater.findFacingNPC(PORTRAIT_PREFETCH_RANGE);
+            if (npcAhead!=null){
+                portraitCache.prefetch(npcAhead.getPortraitUrl());
+            }
+
             npcInteract = gameUpdater.checkInteraction();
 
             if (npcInteract!=null){
@@ -309,16 +421,6 @@ public class GameScreen extends ScreenAdapter{
                     else{
                         text = npcInteractTest.getName()+": "+((NPCTest)npc.get(nextPrueba-1)).getRestDialog();
                     }
-
-                    if (portrait != null) {
-                        portrait.remove();
-                    }
-                    portrait=new Image(new Texture("People/Retratos/prueba"+npcInteractTest.getAssociatedTestNumber()+".png"));
-                    portrait.setPosition(0,0);
-                    portrait.setSize(100,100);
-                    stageDialog.addActor(portrait);
-
-                
                 }
                 //Handles interaction with an NPC that does not require a test.
                 //Displays the NPC's name and dialog, and shows their portrait.
@@ -327,65 +429,94 @@ public class GameScreen extends ScreenAdapter{
                     //Downcasting npcInteract to NPCNoTest
                     npcInteractNoTest=(NPCNoTest) npcInteract;
                     text=npcInteractNoTest.getName()+": "+npcInteractNoTest.getDialog();
-
-                    if (portrait != null) {
-                        portrait.remove();
-                    }
-                    portrait=new Image(new Texture("People/Retratos/"+npcInteractNoTest.getName()+".png"));
-                    portrait.setPosition(0,0);
-                    portrait.setSize(100,100);
-                    stageDialog.addActor(portrait);
                 }
 
+                //Show the portrait of the NPC, usually already prefetched
+                portrait.setDrawable(portraitCache.get(npcInteract.getPortraitUrl()));
+                portrait.setVisible(true);
+
+                //Only NPCs with a test start one on ENTER
+                interactTest = npcInteract instanceof NPCTest ? ((NPCTest)npcInteract).getAssociatedTestNumber() : 0;
+                //Build the test while the dialog is typing, if it is the next one
+                game.prepareTest(interactTest);
+
                 //Set state variables accordingly
+                dialogText.show(text);
                 draw=true;
                 write = true;
             }
+            else {
+                //Handles the dialog and test triggers of the tile the player has stepped on
+                Trigger trigger = gameUpdater.checkTrigger();
+                if (trigger!=null){
+                    interacting = true;
+                    text = trigger.getText();
+                    interactTest = trigger.getType()==Trigger.Type.TEST ? trigger.getTestNumber() : 0;
+                    game.prepareTest(interactTest);
+                    portrait.setVisible(false);
+
+                    dialogText.show(text);
+                    draw=true;
+                    write = true;
+                }
+            }
 
         }
         /**
          * Handles the case where the npc is not speaking and player has interacted with an NPC.
-         * If the user has inputted ENTER, and the NPC is an instance of NPCTest,
-         * the game will start the test associated with the NPC. Otherwise, the interaction
-         * will end and the label will be reset.
-         * If the user has inputted ESC, the interaction will end and the label will be reset.
+         * If the user has inputted ENTER and the dialog has more pages, the next page is typed.
+         * On the last page, if the NPC or trigger has a test, the game will start that test.
+         * Otherwise, the interaction will end and the dialog text will be reset.
+         * If the user has inputted ESC, the interaction will end and the dialog text will be reset.
          */
         else if(!write){
 
-            if(gameUpdater.checkInput()==0){
+            //Each press is only returned once, so the input is checked once per step
+            int pressed = gameUpdater.checkInput();
+            if(pressed==0 && dialogText.hasNextPage()){
+                dialogText.nextPage();
+                write = true;
 
-                if (npcInteract instanceof NPCTest){
-                    game.startTest(((NPCTest)npcInteract).getAssociatedTestNumber());
+            }else if(pressed==0){
+
+                if (interactTest>0){
+                    game.startTest(interactTest);
                 }
                 draw=false;
                 interacting = false;
-                letterCount = 0;
-                label.setText("");
+                dialogText.clearText();
+                //Do not walk with a move pressed while the dialog was open
+                inputQueue.clear();
 
-            }else if(gameUpdater.checkInput()==1){
+            }else if(pressed==1){
                 draw = false;
                 interacting = false;
-                letterCount = 0;
-                label.setText("");
+                dialogText.clearText();
+                inputQueue.clear();
             }
         }
+        /**
+         * While the page is being typed, ENTER shows the rest of the page at once.
+         */
+        else if (gameUpdater.checkInput()==0){
+            dialogText.completePage();
+        }
 
-        //Animates the text by writing it out letter by letter, with a delay of two counts between each letter.
+        //Types the text of the dialog by time, the characters per second of the dialog text.
         if (write){
-            count+=1;
-
-            if(count == 1){
-                label.setText(text.substring(0, letterCount));
-                letterCount+=1;
-                count = 0;
-            }
-
-            if (letterCount==text.length()+1){
+            dialogText.update(delta);
+            if (dialogText.isPageComplete()){
                 write = false;
             }
         }
+    }
 
-        //If the draw flag is set to true, the dialog stage is updated and drawn.
+    /**
+     * Draws the dialog box if there is one open.
+     *
+     * @param delta The time in seconds since the last render call
+     */
+    private void drawDialog(float delta) {
         if (draw){
             stageDialog.act(delta);
             stageDialog.draw();
@@ -394,13 +525,12 @@ public class GameScreen extends ScreenAdapter{
 
     /**
      * Draws the current number of lives on the screen.
+     * The lives image is only changed when the number of lives changes.
      *
      * @param delta The time in seconds since the last render call
      */
     private void drawLives(float delta) {
-        lives=new Image(new Texture("Lives/"+game.getLives()+"lives.png"));
-        lives.setPosition(10,575);
-        stageLives.addActor(lives);
+        livesHud.update(game.getLives());
 
         stageLives.act(delta);
         stageLives.draw();
@@ -408,44 +538,85 @@ public class GameScreen extends ScreenAdapter{
 
     /**
      * Updates the game renderer with the current camera position and view.
-     * The screen coordinates are also set based on the camera position and viewport size.
+     *
+     * @param alpha How far the frame is between the last two simulation steps
      */
-    private void updateGameRenderer() {
-        // Set the camera's position to the player's position
-        camera.position.set(player.getX(), player.getY(), 0);
+    private void updateGameRenderer(float alpha) {
+        // Set the camera's position to the position the player is drawn at
+        camera.position.set(player.getDrawX(alpha), player.getDrawY(alpha), 0);
         camera.update();
         gameRenderer.setView(camera);
+        gameRenderer.setAlpha(alpha);
 
-        float screenX=camera.position.x-camera.viewportWidth/2;
-        float screenY=camera.position.y-camera.viewportHeight/2;
-        gameRenderer.setScreenCoordinates(screenX,screenY);
-
+        renderBenchmark.begin();
         gameRenderer.render();
+        renderBenchmark.end(gameRenderer.getMode().getLabel(), gameRenderer.getVertices());
+    }
+
+    /**
+     * Checks the keys used to compare the render paths.
+     * F9 switches between the baked chunks, rendering cell by cell and the tilemap shader, F10 turns the render benchmark and the input latency log on and off.
+     */
+    private void checkDebugKeys() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F9)){
+            Gdx.app.log("GameScreen", "Render mode: "+gameRenderer.nextMode().getLabel());
+            renderBenchmark.reset();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F10)){
+            renderBenchmark.setEnabled(!renderBenchmark.isEnabled());
+            inputQueue.setMeasuring(renderBenchmark.isEnabled());
+        }
     }
 
     /**
-     * Shows the settings button on the stage and sets the input processor to the stage.
-     * When the settings button is clicked, the settings box is shown and made visible.
+     * Sets the input processor to the stage with the settings button and the command queue.
+     * The settings button is set up once when the screen is built, so the screen can be shown again after each test.
      */
     @Override
     public void show() {
 
-       //Adds a click listener to the settings button that shows the settings box when clicked.
-       settings.addListener(new ClickListener(){
-           @Override
-           public void clicked(InputEvent event, float x, float y) {
-               settingsBox.show(stageLives);
-               settingsBox.setVisible(true);
-           }
-       });
-
-       stageLives.addActor(settings);
-       Gdx.input.setInputProcessor(stageLives);
+       //The settings button gets the input first, the rest goes to the command queue
+       //Releases may have gone to another screen while this one was hidden, so start from no key held
+       inputQueue.reset();
+       Gdx.input.setInputProcessor(new InputMultiplexer(stageLives, inputQueue));
+    }
+
+    /**
+     * Returns the bytes of the textures of the map tilesets, which are loaded outside the texture cache.
+     */
+    @Override
+    public long getGpuBytes() {
+        HashSet<Texture> textures=new HashSet<>();
+        for (TiledMapTileSet tileSet: map.getTileSets()){
+            for (TiledMapTile tile: tileSet){
+                textures.add(tile.getTextureRegion().getTexture());
+            }
+        }
+        long bytes=0;
+        for (Texture texture: textures){
+            bytes+=TextureCache.sizeOf(texture);
+        }
+        return bytes;
     }
 
     @Override
     public void dispose() {
         batch.dispose();
+        gameRenderer.dispose();
+        stageDialog.dispose();
+        stageLives.dispose();
+        TextureCache.release(GEAR);
+        livesHud.dispose();
+        portraitCache.dispose();
+        inputQueue.dispose();
+        //Release the textures of the people
+        player.dispose();
+        for (NPC p: npc) {
+            p.dispose();
+        }
+        game.getSkins().release(SkinRegistry.TERRA_MOTHER);
+        game.getSkins().release(SkinRegistry.FLAT_EARTH);
+        game.getSkins().release(SkinRegistry.CLOUD_FORM);
     }
 
     /**
@@ -465,4 +636,13 @@ public class GameScreen extends ScreenAdapter{
         return saveData;
     }
 
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    //The keys and buttons go here once the screen is shown, the tests press them directly
+    InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
 }
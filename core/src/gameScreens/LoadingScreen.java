@@ -0,0 +1,118 @@
+package gameScreens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.TimeUtils;
+
+public class LoadingScreen extends ScreenAdapter {
+
+    /**
+     * Shows a progress bar while the asset manager loads the assets queued for the next screen.
+     * Each frame gives the asset manager a slice of UPDATE_MILLIS milliseconds, so the window keeps
+     * drawing and responding while big assets like the map are loaded. When everything is loaded the
+     * callback builds and shows the next screen.
+     *
+     * It logs the time from the load request to its first frame (time to first frame) and to the
+     * moment the next screen is shown and takes the input (time to interactive).
+     *
+     * @param assets The asset manager of the game
+     * @param shapes The renderer of the progress bar
+     * @param target The name of the screen being loaded, for the log
+     * @param onLoaded Builds and shows the next screen once its assets are loaded
+     * @param requestedAt The time the load was requested in nanoseconds
+     * @param firstFrame Whether the first frame of this load has been drawn
+     */
+    private static final int UPDATE_MILLIS=10;
+
+    private static final float BAR_WIDTH=600;
+    private static final float BAR_HEIGHT=30;
+
+    private final AssetManager assets;
+    private final ShapeRenderer shapes;
+
+    private String target;
+    private Runnable onLoaded;
+    private long requestedAt;
+    private boolean firstFrame;
+
+    /**
+     * Creates the loading screen. It needs no assets, so it can be shown before anything is loaded.
+     *
+     * @param assets The asset manager of the game
+     */
+    public LoadingScreen(AssetManager assets) {
+        this.assets=assets;
+        shapes=new ShapeRenderer();
+    }
+
+    /**
+     * Prepares the screen for a new load. The assets must already be queued in the asset manager.
+     *
+     * @param target The name of the screen being loaded, for the log
+     * @param onLoaded Builds and shows the next screen once its assets are loaded
+     */
+    public void reset(String target, Runnable onLoaded) {
+        this.target=target;
+        this.onLoaded=onLoaded;
+        requestedAt=TimeUtils.nanoTime();
+        firstFrame=false;
+    }
+
+    /**
+     * Loads for a slice of the frame and draws the progress. Shows the next screen when everything is loaded.
+     *
+     * @param delta The time in seconds since the last render.
+     */
+    @Override
+    public void render(float delta) {
+        Gdx.gl.glClearColor(207/255f, 185/255f, 151/255f, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        if (!firstFrame){
+            firstFrame=true;
+            Gdx.app.log("LoadingScreen", target+": first frame after "+TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(requestedAt))+" ms");
+        }
+
+        if (assets.update(UPDATE_MILLIS)){
+            Runnable loaded=onLoaded;
+            onLoaded=null;
+            if (loaded!=null){
+                loaded.run();
+                Gdx.app.log("LoadingScreen", target+": interactive after "+TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(requestedAt))+" ms");
+            }
+            return;
+        }
+
+        //Progress bar in the middle of the screen
+        float x=(Gdx.graphics.getWidth()-BAR_WIDTH)/2;
+        float y=(Gdx.graphics.getHeight()-BAR_HEIGHT)/2;
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(92/255f, 64/255f, 51/255f, 1);
+        shapes.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        shapes.setColor(1, 1, 1, 1);
+        shapes.rect(x+4, y+4, (BAR_WIDTH-8)*assets.getProgress(), BAR_HEIGHT-8);
+        shapes.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        shapes.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+    }
+
+    /**
+     * Shows the screen. The input goes nowhere while loading, so the previous screen can not be used again.
+     */
+    @Override
+    public void show() {
+        Gdx.input.setInputProcessor(null);
+        shapes.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    @Override
+    public void dispose() {
+        shapes.dispose();
+    }
+}
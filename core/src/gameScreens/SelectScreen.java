@@ -10,6 +10,9 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import gameApp.Game;
+import gameHelpers.AssetManifest;
+import gameHelpers.SkinRegistry;
+import gameHelpers.TextureCache;
 
 public class SelectScreen extends ScreenAdapter {
     
@@ -21,6 +24,10 @@ public class SelectScreen extends ScreenAdapter {
      * @param game The game instance
      */
 
+    private static final String TITLE="Title/title.png";
+    private static final String BOY="People/Retratos/Boy.png";
+    private static final String GIRL="People/Retratos/Lady2.png";
+
     private Game game;
 
     private Stage stage;
@@ -50,10 +57,10 @@ public class SelectScreen extends ScreenAdapter {
         table.setFillParent(true);
 
         //Loads the skin for the UI elements of the game.
-        skin = new Skin(Gdx.files.internal("Skin/flat-earth-ui.json"));
+        skin = game.getSkins().acquire(SkinRegistry.FLAT_EARTH);
 
         //Create title texture
-        Texture texture = new Texture(Gdx.files.internal("Title/title.png"));
+        Texture texture = TextureCache.acquire(TITLE);
         Image titleImage = new Image(texture);
         titleImage.setSize(texture.getWidth()*2,texture.getHeight()*2);
         titleImage.setPosition(350,Gdx.graphics.getHeight()*2/3+55);
@@ -65,9 +72,9 @@ public class SelectScreen extends ScreenAdapter {
 
         //Create label and buttons for gender selection
         Label spriteLabel=new Label("Elige personaje: ",skin,"title");
-        Texture boyTexture = new Texture(Gdx.files.internal("People/Retratos/Boy.png"));
+        Texture boyTexture = TextureCache.acquire(BOY);
         Image boyImage = new Image(boyTexture);
-        Texture girlTexture = new Texture(Gdx.files.internal("People/Retratos/Lady2.png"));
+        Texture girlTexture = TextureCache.acquire(GIRL);
         Image girlImage = new Image(girlTexture);
         boyButton=new Button(boyImage,skin);
         girlButton= new Button(girlImage,skin);
@@ -129,6 +136,17 @@ public class SelectScreen extends ScreenAdapter {
         Gdx.input.setInputProcessor(stage);
     }
 
+    /**
+     * Returns the assets this screen needs, to load them before it is built.
+     */
+    public static AssetManifest manifest() {
+        return new AssetManifest()
+                .add(SkinRegistry.FLAT_EARTH, Skin.class)
+                .add(TITLE, Texture.class)
+                .add(BOY, Texture.class)
+                .add(GIRL, Texture.class);
+    }
+
     /**
      * Renders the stage with a clear color and updates the actors within the stage.
      *
@@ -151,6 +169,10 @@ public class SelectScreen extends ScreenAdapter {
     @Override
     public void dispose() {
         stage.dispose();
+        game.getSkins().release(SkinRegistry.FLAT_EARTH);
+        TextureCache.release(TITLE);
+        TextureCache.release(BOY);
+        TextureCache.release(GIRL);
     }
 
     /////////////////////////
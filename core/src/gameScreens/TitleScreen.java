@@ -13,6 +13,9 @@ import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import gameApp.Game;
+import gameHelpers.AssetManifest;
+import gameHelpers.SkinRegistry;
+import gameHelpers.TextureCache;
 
 public class TitleScreen extends ScreenAdapter {
     
@@ -23,6 +26,8 @@ public class TitleScreen extends ScreenAdapter {
      *
      * @param game The game instance
      */
+    private static final String TITLE="Title/title.png";
+
     private Game game;
 
     private Stage stage;
@@ -54,29 +59,12 @@ public class TitleScreen extends ScreenAdapter {
         table.setFillParent(true);
 
         //Loads the skin for the UI elements of the game.
-        skin = new Skin(Gdx.files.internal("Skin/flat-earth-ui.json"));
+        skin = game.getSkins().acquire(SkinRegistry.FLAT_EARTH);
 
         //Create buttons
         startButton =new TextButton("Comenzar",skin);
         restartButton=new TextButton("Reiniciar partida", skin);
 
-        //Create title texture
-        Texture texture = new Texture(Gdx.files.internal("Title/title.png"));
-        Image titleImage = new Image(texture);
-        titleImage.setSize(texture.getWidth()*6,texture.getHeight()*6);
-        titleImage.setPosition(50,Gdx.graphics.getHeight()*1/3);
-        stage.addActor(titleImage);
-
-        stage.addActor(table);
-    }
-
-    /**
-     * Shows the main menu screen and sets up the buttons for starting a new game or restarting an existing one.
-     * If a saved game exists, the restart button is displayed and the start button's text is changed to "Continuar jugando".
-     */
-    @Override
-    public void show() {
-
         //Adds a listener to the start button that triggers the player selection method when clicked.
         startButton.addListener(new ClickListener(){
             @Override
@@ -93,17 +81,56 @@ public class TitleScreen extends ScreenAdapter {
             }
         });
 
+        //Create title texture
+        Texture texture = TextureCache.acquire(TITLE);
+        Image titleImage = new Image(texture);
+        titleImage.setSize(texture.getWidth()*6,texture.getHeight()*6);
+        titleImage.setPosition(50,Gdx.graphics.getHeight()*1/3);
+        stage.addActor(titleImage);
+
+        stage.addActor(table);
+
+        reset(saved);
+    }
+
+    /**
+     * Sets up the buttons for starting a new game or restarting an existing one, so the screen can be shown again.
+     * If a saved game exists, the restart button is displayed and the start button's text is changed to "Continuar jugando".
+     *
+     * @param saved A boolean indicating whether the game has been saved previously.
+     */
+    public void reset(boolean saved) {
+        this.saved=saved;
+
+        table.clearChildren();
         table.add(startButton).padTop(300).width(300).height(50);
 
         //If the game is saved, adds a restart button to the table. Changes the text of the start button to "Continuar jugando".
         if(saved){
             table.add(restartButton).padTop(300).width(300).height(50);
             startButton.setText("Continuar jugando");
+        }else{
+            startButton.setText("Comenzar");
         }
+    }
 
+    /**
+     * Shows the main menu screen and sets the input processor to its stage.
+     */
+    @Override
+    public void show() {
         Gdx.input.setInputProcessor(stage);
     }
 
+    /**
+     * Returns the assets this screen needs, to load them before it is built.
+     */
+    public static AssetManifest manifest() {
+        return new AssetManifest()
+                .add(SkinRegistry.FLAT_EARTH, Skin.class)
+                .add(TITLE, Texture.class);
+    }
+
     /**
      * Renders the stage.
      *
@@ -126,5 +153,7 @@ public class TitleScreen extends ScreenAdapter {
     @Override
     public void dispose() {
         stage.dispose();
+        game.getSkins().release(SkinRegistry.FLAT_EARTH);
+        TextureCache.release(TITLE);
     }
 }
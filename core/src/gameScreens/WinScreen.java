@@ -10,6 +10,8 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import gameApp.Game;
+import gameHelpers.SkinRegistry;
+import gameHelpers.TextureCache;
 
 public class WinScreen extends ScreenAdapter {
 
@@ -27,6 +29,8 @@ public class WinScreen extends ScreenAdapter {
      * @param gameOverLabel The label that displays the game over message.
      */
 
+    private static final String TITLE="Title/title.png";
+
     private Game game;
 
     private Stage stage;
@@ -55,8 +59,8 @@ public class WinScreen extends ScreenAdapter {
         table.setFillParent(true);
 
         //Loads two skins from JSON files to be used in the UI.
-        skin = new Skin(Gdx.files.internal("Skin/flat-earth-ui.json"));
-        skinDialog = new Skin(Gdx.files.internal("SkinDialog/terra-mother-ui.json"));
+        skin = game.getSkins().acquire(SkinRegistry.FLAT_EARTH);
+        skinDialog = game.getSkins().acquire(SkinRegistry.TERRA_MOTHER);
 
         gameOverLabel = new Label("Enhorabuena, ¡¡has superado todas las pruebas!!.\n El juego ha terminado para ti, ahora entiendes de microprocesadores", skinDialog, "black");
         gameOverLabel.setPosition(200,Gdx.graphics.getHeight()/2+50);
@@ -66,21 +70,13 @@ public class WinScreen extends ScreenAdapter {
         endButton = new TextButton("Cerrar Juego", skin);
 
         //Creates a texture from the file "Title/title.png", creates an image from the texture
-        Texture texture = new Texture(Gdx.files.internal("Title/title.png"));
+        Texture texture = TextureCache.acquire(TITLE);
         Image titleImage = new Image(texture);
         titleImage.setSize(texture.getWidth()*3,texture.getHeight()*3);
         titleImage.setPosition(300,Gdx.graphics.getHeight()*2/3);
         stage.addActor(titleImage);
 
         stage.addActor(table);
-    }
-
-    /**
-     * Shows the game over screen with restart and end game buttons.
-     * Sets up click listeners for the buttons to call the appropriate game methods.
-     */
-    @Override
-    public void show() {
 
         //Adds a click listener to the restart button that restarts the game when clicked.
         restartButton.addListener(new ClickListener(){
@@ -100,7 +96,14 @@ public class WinScreen extends ScreenAdapter {
 
         table.add(restartButton).padTop(300).width(300).height(50);
         table.add(endButton).padTop(300).width(300).height(50);
+    }
 
+    /**
+     * Shows the screen with its restart and end game buttons and sets the input processor to its stage.
+     * The buttons are set up once when the screen is built, so it can be shown again.
+     */
+    @Override
+    public void show() {
         Gdx.input.setInputProcessor(stage);
     }
 
@@ -128,5 +131,8 @@ public class WinScreen extends ScreenAdapter {
     @Override
     public void dispose() {
         stage.dispose();
+        game.getSkins().release(SkinRegistry.FLAT_EARTH);
+        game.getSkins().release(SkinRegistry.TERRA_MOTHER);
+        TextureCache.release(TITLE);
     }
 }
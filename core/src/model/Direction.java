@@ -0,0 +1,69 @@
+package model;
+
+public enum Direction {
+
+    /**
+     * The four directions a person can face. Each direction keeps the name used by the sprite files
+     * and the saved data, and the tile offset of one step in that direction.
+     */
+    FRONT("frente",0,-1),
+    BACK("espaldas",0,1),
+    LEFT("izquierda",-1,0),
+    RIGHT("derecha",1,0);
+
+    private final String name;
+    private final int dx;
+    private final int dy;
+
+    Direction(String name, int dx, int dy) {
+        this.name=name;
+        this.dx=dx;
+        this.dy=dy;
+    }
+
+    /**
+     * Returns the direction with the given name, or FRONT if the name is unknown.
+     *
+     * @param name The name of the direction, as used in the sprite files ("frente", "espaldas"...)
+     */
+    public static Direction fromName(String name) {
+        for (Direction direction: values()){
+            if (direction.name.equals(name)){
+                return direction;
+            }
+        }
+        return FRONT;
+    }
+
+    /**
+     * Returns the direction of a step of dx and dy tiles, or null if the step is not in any direction.
+     */
+    public static Direction fromStep(int dx, int dy) {
+        if (dx==1){
+            return RIGHT;
+        }if (dx==-1){
+            return LEFT;
+        }if (dy==1){
+            return BACK;
+        }if (dy==-1){
+            return FRONT;
+        }
+        return null;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+}
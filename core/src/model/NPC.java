@@ -3,6 +3,7 @@ package model;
 public abstract class NPC extends Person{
 
     private final String name;
+    private String portraitUrl;
 
     /**
      * Creates a new NPC object with the given coordinates, image URL, and name.
@@ -20,5 +21,18 @@ public abstract class NPC extends Person{
         return name;
     }
 
+    //Returns the path of the portrait shown when talking to this NPC. It is built once, it is asked for every step.
+    public String getPortraitUrl() {
+        if (portraitUrl==null){
+            portraitUrl=portraitPath();
+        }
+        return portraitUrl;
+    }
+
+    //Builds the path of the portrait of this NPC.
+    protected String portraitPath() {
+        return "People/Retratos/"+name+".png";
+    }
+
 
 }
@@ -46,4 +46,9 @@ public class NPCTest extends NPC{
     public String getRestDialog(){
         return restDialog;
     }
+
+    @Override
+    protected String portraitPath() {
+        return "People/Retratos/prueba"+associatedTestNumber+".png";
+    }
 }
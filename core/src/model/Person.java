@@ -1,20 +1,30 @@
 package model;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import gameHelpers.SpriteAtlas;
+import gameHelpers.TextureCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
 
 public abstract class Person {
     /**
      * Represents a person in the game world.
      * Contains the person's position and texture information.
+     *
+     * @param regions The regions this person has used, keyed by the path of their image
+     * @param cachedTextures The paths of the images loaded through the texture cache because they are not in the atlas
      */
     protected float x;
     protected float y;
 
-    protected Texture personTexture;
     protected Sprite sprite;
 
+    private final HashMap<String, TextureRegion> regions=new HashMap<>();
+    private final ArrayList<String> cachedTextures=new ArrayList<>();
+
     /**
      * Creates a new Person object with the given coordinates and texture URL.
      *
@@ -26,29 +36,61 @@ public abstract class Person {
         this.x=x;
         this.y=y;
 
-        personTexture=new Texture(textureUrl);
-
-        sprite=new Sprite(personTexture);
+        sprite=new Sprite(findRegion(textureUrl));
         sprite.setOrigin(0,0);
         sprite.setScale(1/16f);
     }
 
     /**
-     * Draws the sprite on the screen at the given position.
+     * Draws the sprite at the position of the person, in map coordinates.
+     *
+     * @param alpha How far the time is between the last two simulation steps, from 0 to 1
      */
-    public void draw(SpriteBatch batch,float screenX,float screenY) {
-        sprite.setPosition(getX()-screenX,getY()-screenY);
+    public void draw(Batch batch, float alpha) {
+        sprite.setPosition(getDrawX(alpha),getDrawY(alpha));
         sprite.draw(batch);
     }
 
+    /**
+     * Returns the region of the image at the given URL.
+     * The region is taken from the sprite atlas if it has been packed, if not the image is loaded
+     * through the texture cache. Each URL is only resolved once per person.
+     *
+     * @param url The URL of the image
+     * @return The region with the image
+     */
+    protected TextureRegion findRegion(String url) {
+        TextureRegion region=regions.get(url);
+        if (region==null){
+            region=SpriteAtlas.findRegion(url);
+            if (region==null){
+                //The image is not packed, use the loose file
+                region=new TextureRegion(TextureCache.acquire(url));
+                cachedTextures.add(url);
+            }
+            regions.put(url,region);
+        }
+        return region;
+    }
+
+    /**
+     * Releases the textures this person loaded through the texture cache.
+     */
+    public void dispose() {
+        for (String url: cachedTextures){
+            TextureCache.release(url);
+        }
+        cachedTextures.clear();
+        regions.clear();
+    }
+
     /////////////////////////
     // GETTERS AND SETTERS //
     /////////////////////////
 
-    //Sets the texture of a sprite to the image located at the given URL.
-    public void setSpriteTexture(String url) {
-       Texture newTexture=new Texture(url);
-       sprite.setTexture(newTexture);
+    //Sets the region drawn by the sprite.
+    public void setSpriteRegion(TextureRegion region) {
+        sprite.setRegion(region);
     }
 
     public float getX() {
@@ -59,11 +101,21 @@ public abstract class Person {
         return y;
     }
 
+    //Returns the x-coordinate to draw at between the last two simulation steps. People that do not move draw at x.
+    public float getDrawX(float alpha) {
+        return x;
+    }
+
+    //Returns the y-coordinate to draw at between the last two simulation steps. People that do not move draw at y.
+    public float getDrawY(float alpha) {
+        return y;
+    }
+
     public int getWidth() {
-        return personTexture.getWidth();
+        return sprite.getRegionWidth();
     }
 
     public int getHeight() {
-        return personTexture.getHeight();
+        return sprite.getRegionHeight();
     }
 }
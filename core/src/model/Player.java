@@ -1,5 +1,7 @@
 package model;
 
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Interpolation;
 
 public class Player extends Person{
@@ -14,30 +16,58 @@ public class Player extends Person{
      * @param gender The gender of the character
      * @param direction The direction the character is facing
      * @param velocity The velocity of the character's movement
+     * @param previousX The x-coordinate before the last update, to interpolate the drawing
+     * @param previousY The y-coordinate before the last update, to interpolate the drawing
+     * @param walk The walk cycle of each direction, indexed by the direction ordinal
+     * @param standing The standing frame of each direction, indexed by the direction ordinal
      */
     private float elapsedTime;
     private boolean moving;
     private float targetX;
     private float targetY;
+    private float previousX;
+    private float previousY;
 
     private final String gender;
 
-    private String direction;
+    private Direction direction;
 
     private static float velocity=1/6f;
 
+    private final Animation<TextureRegion>[] walk;
+    private final TextureRegion[] standing;
+
     /**
      * Constructs a new Player object with the given x and y coordinates, gender, and direction.
+     * Every frame of the walk cycle is resolved and acquired here and kept until dispose is called,
+     * so walking only swaps regions and never loads or releases a texture.
      *
      * @param x The x-coordinate of the player's position
      * @param y The y-coordinate of the player's position
      * @param gender The gender of the player
      * @param direction The direction the player is facing
      */
+    @SuppressWarnings("unchecked")
     public Player(float x, float y, String gender, String direction) {
         super(x, y,"People/"+gender+"/frente.png");
         this.gender=gender;
-        setDirection(direction);
+
+        //Build the walk cycle of every direction: first step, standing and second step
+        walk=new Animation[Direction.values().length];
+        standing=new TextureRegion[Direction.values().length];
+        for (Direction d: Direction.values()){
+            TextureRegion stand=findRegion("People/"+gender+"/"+d.getName()+".png");
+            TextureRegion step1=findRegion("People/"+gender+"/andar_"+d.getName()+"_1.png");
+            TextureRegion step2=findRegion("People/"+gender+"/andar_"+d.getName()+"_2.png");
+            standing[d.ordinal()]=stand;
+            walk[d.ordinal()]=new Animation<>(velocity/3f, step1, stand, step2);
+        }
+
+        setDirection(Direction.fromName(direction));
+        setSpriteRegion(standing[this.direction.ordinal()]);
+
+        previousX=x;
+        previousY=y;
     }
 
     /**
@@ -49,14 +79,9 @@ public class Player extends Person{
      */
     public void move(int dx, int dy){
         if (!moving) {
-            if (dx==1){
-                setDirection("derecha");
-            }if (dx==-1){
-                setDirection("izquierda");
-            }if (dy==1){
-                setDirection("espaldas");
-            }if (dy==-1){
-                setDirection("frente");
+            Direction d=Direction.fromStep(dx,dy);
+            if (d!=null){
+                setDirection(d);
             }
 
             targetX = super.x + (float) dx;
@@ -72,6 +97,8 @@ public class Player extends Person{
      * @param delta The time elapsed since the last update
      */
     public void update(float delta) {
+        previousX=super.x;
+        previousY=super.y;
         if(!moving){
             return;
         }
@@ -93,32 +120,26 @@ public class Player extends Person{
      */
     public void animate(float alpha){
 
-
         /**
-         * Sets the texture of the sprite based on the alpha value.
-         * If alpha is less than 1/3, the sprite texture will be set to "People/gender/andar_direction_1.png".
-         * If alpha is between 1/3 and 2/3, the sprite texture will be set to "People/gender/direction.png".
-         * If alpha is between 2/3 and 1, the sprite texture will be set to "People/gender/andar_direction_2.png".
+         * Sets the frame of the walk cycle of the current direction based on the alpha value.
+         * The first third of the step shows the first walking frame, the second third the standing
+         * frame and the last third the second walking frame.
          */
-        if (alpha < 1/3f){
-            setSpriteTexture("People/"+gender+"/andar_"+direction+"_1.png");
-        }else if(alpha>=1/3f && alpha<2/3f){
-            setSpriteTexture("People/"+gender+"/"+direction+".png");
-        }else if(alpha>=2/3f && alpha<1){
-            setSpriteTexture("People/"+gender+"/andar_"+direction+"_2.png");
+        if (alpha < 1){
+            setSpriteRegion(walk[direction.ordinal()].getKeyFrame(alpha*velocity));
         }
 
         /**
          * If the alpha value is greater than or equal to 1, the sprite's position is set to the target position,
-         * the sprite is no longer moving, the elapsed time is reset to 0, and the sprite's texture is set to the
-         * appropriate image based on the sprite's gender and direction.
+         * the sprite is no longer moving, the elapsed time is reset to 0, and the sprite is set to the
+         * standing frame of its direction.
          */
         if (alpha >= 1) {
             super.x = targetX;
             super.y = targetY;
             moving = false;
             elapsedTime = 0;
-            setSpriteTexture("People/"+gender+"/"+direction+".png");
+            setSpriteRegion(standing[direction.ordinal()]);
         }
     }
 
@@ -126,40 +147,55 @@ public class Player extends Person{
      * Changes the direction of the sprite based on the given dx and dy values.
      * If dx is 1, the direction is set to "derecha". If dx is -1, the direction is set to "izquierda".
      * If dy is 1, the direction is set to "espaldas". If dy is -1, the direction is set to "frente".
-     * The sprite texture is then updated based on the new direction.
+     * The sprite is then set to the standing frame of the new direction.
      */
     public void turn(int dx, int dy) {
-        if (dx==1){
-            setDirection("derecha");
-        }if (dx==-1){
-            setDirection("izquierda");
-        }if (dy==1){
-            setDirection("espaldas");
-        }if (dy==-1){
-            setDirection("frente");
+        Direction d=Direction.fromStep(dx,dy);
+        if (d!=null){
+            setDirection(d);
         }
 
-        setSpriteTexture("People/"+gender+"/"+direction+".png");
+        setSpriteRegion(standing[direction.ordinal()]);
     }
 
     /**
      * Teleports the object to the specified coordinates.
+     * The previous position is moved too, so the drawing does not slide across the map.
      */
     public void teleport(float x, float y){
         this.x=x;
         this.y=y;
+        previousX=x;
+        previousY=y;
     }
 
     /////////////////////////
     // GETTERS AND SETTERS //
     /////////////////////////
     
-    private void setDirection(String direction) {
+    private void setDirection(Direction direction) {
         this.direction=direction;
     }
 
     public String getDirection() {
+        return direction.getName();
+    }
+
+    @Override
+    public float getDrawX(float alpha) {
+        return Interpolation.linear.apply(previousX, super.x, alpha);
+    }
+
+    @Override
+    public float getDrawY(float alpha) {
+        return Interpolation.linear.apply(previousY, super.y, alpha);
+    }
+
+    public boolean isMoving() {
+        return moving;
+    }
+
+    public Direction getFacing() {
         return direction;
     }
 }
-
@@ -0,0 +1,59 @@
+package questionTypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class Answer {
+
+    /**
+     * The answer given to a question, as one response per blank: the letter of the option checked in a
+     * multiple choice question, the option selected in each box of a drop down question or the text
+     * written in each field of a fill in the gap question.
+     *
+     * @param responses The responses in the order of the blanks of the question
+     */
+    private final List<String> responses;
+
+    public Answer(String... responses) {
+        this(Arrays.asList(responses));
+    }
+
+    public Answer(List<String> responses) {
+        this.responses=Collections.unmodifiableList(new ArrayList<>(responses));
+    }
+
+    /**
+     * Returns true if the answer has one response per correct answer and every response is equal to its correct answer.
+     *
+     * @param correctAnswers The correct answers in the order of the blanks
+     */
+    boolean matches(List<String> correctAnswers) {
+        if (responses.size()!=correctAnswers.size()){
+            return false;
+        }
+        for (int i=0;i<responses.size();i++){
+            if (!responses.get(i).equals(correctAnswers.get(i))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public List<String> getResponses() {
+        return responses;
+    }
+
+    public String getResponse(int blank) {
+        return responses.get(blank);
+    }
+
+    public int size() {
+        return responses.size();
+    }
+}
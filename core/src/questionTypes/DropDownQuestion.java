@@ -2,7 +2,7 @@ package questionTypes;
 
 import java.util.ArrayList;
 
-public class DropDownQuestion {
+public class DropDownQuestion implements Question {
 
     /**
      * Represents a question in a quiz game. Contains the question text, the number of blanks to fill in,
@@ -38,10 +38,19 @@ public class DropDownQuestion {
         correctAnswers=new ArrayList<>(numberBlanks);
     }
 
+    /**
+     * The answer is the option selected in each box, which is right when every box has its correct option.
+     */
+    @Override
+    public boolean grade(Answer answer) {
+        return answer.matches(correctAnswers);
+    }
+
     /////////////////////////
     // GETTERS AND SETTERS //
     /////////////////////////
 
+    @Override
     public String getQuestion() {
         return question;
     }
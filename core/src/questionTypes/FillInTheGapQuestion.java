@@ -2,7 +2,7 @@ package questionTypes;
 
 import java.util.ArrayList;
 
-public class FillInTheGapQuestion {
+public class FillInTheGapQuestion implements Question {
 
     /**
      * Represents a question in a fill-in-the-blank quiz game.
@@ -27,6 +27,14 @@ public class FillInTheGapQuestion {
         correctAnswers=new ArrayList<>(numberBlanks);
     }
 
+    /**
+     * The answer is the text written in each field, which is right when every field has exactly its correct answer.
+     */
+    @Override
+    public boolean grade(Answer answer) {
+        return answer.matches(correctAnswers);
+    }
+
     /////////////////////////
     // GETTERS AND SETTERS //
     /////////////////////////
@@ -39,6 +47,7 @@ public class FillInTheGapQuestion {
         return numberBlanks;
     }
 
+    @Override
     public String getQuestion() {
         return question;
     }
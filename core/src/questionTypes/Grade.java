@@ -0,0 +1,36 @@
+package questionTypes;
+
+import java.util.ArrayList;
+
+public class Grade {
+
+    /**
+     * The grade of a submission. A test is passed when every question is right.
+     *
+     * @param results The result of each question, 1 if it is right and 0 if it is not, as the end test screen shows them
+     * @param score The number of questions that are right
+     */
+    private final ArrayList<Integer> results;
+    private final int score;
+
+    public Grade(ArrayList<Integer> results, int score) {
+        this.results=results;
+        this.score=score;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public ArrayList<Integer> getResults() {
+        return results;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isPassed() {
+        return score==results.size();
+    }
+}
@@ -0,0 +1,148 @@
+package questionTypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+public class GradingEngine {
+
+    /**
+     * Grades submissions outside the test screens, one at a time or in batches spread over every core.
+     * A batch is split into one slice of consecutive submissions per task, a few tasks per thread so
+     * the threads stay busy when some slices take longer, and each task writes the grades of its slice
+     * into its own part of the result array. Submissions are only read, so they must not change while
+     * they are graded.
+     *
+     * @param threads The number of worker threads
+     * @param workers The worker threads, started when the first batch is graded
+     */
+    //Batches smaller than this are graded on the calling thread, splitting them costs more than it saves
+    public static final int MIN_PARALLEL_BATCH=256;
+    private static final int TASKS_PER_THREAD=4;
+
+    private final int threads;
+    private ExecutorService workers;
+
+    /**
+     * Creates an engine with one worker thread per core.
+     */
+    public GradingEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GradingEngine(int threads) {
+        if (threads<1){
+            throw new IllegalArgumentException("A grading engine needs at least one thread, not "+threads);
+        }
+        this.threads=threads;
+    }
+
+    /**
+     * Grades a submission on the calling thread.
+     *
+     * @param submission The questions of a test and the answers given to them
+     * @return The grade of the submission
+     */
+    public static Grade grade(Submission submission) {
+        List<? extends Question> questions=submission.getQuestions();
+        List<Answer> answers=submission.getAnswers();
+        ArrayList<Integer> results=new ArrayList<>(questions.size());
+        int score=0;
+        for (int i=0;i<questions.size();i++){
+            if (questions.get(i).grade(answers.get(i))){
+                score+=1;
+                results.add(1);
+            }else{
+                results.add(0);
+            }
+        }
+        return new Grade(results,score);
+    }
+
+    /**
+     * Grades a batch of submissions in parallel and waits for all of them.
+     *
+     * @param submissions The submissions to grade
+     * @return The grades, in the order of the submissions
+     */
+    public List<Grade> gradeAll(final List<Submission> submissions) {
+        final Grade[] grades=new Grade[submissions.size()];
+        if (threads==1 || grades.length<MIN_PARALLEL_BATCH){
+            gradeSlice(submissions,grades,0,grades.length);
+            return Arrays.asList(grades);
+        }
+
+        int tasks=Math.min(threads*TASKS_PER_THREAD,grades.length);
+        ArrayList<Callable<Void>> slices=new ArrayList<>(tasks);
+        for (int i=0;i<tasks;i++){
+            final int from=(int) ((long) grades.length*i/tasks);
+            final int to=(int) ((long) grades.length*(i+1)/tasks);
+            slices.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    gradeSlice(submissions,grades,from,to);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            for (Future<Void> slice: getWorkers().invokeAll(slices)){
+                slice.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while grading "+grades.length+" submissions",e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not grade a submission",e.getCause());
+        }
+        return Arrays.asList(grades);
+    }
+
+    //Grades the submissions from index from, included, to index to, excluded
+    private static void gradeSlice(List<Submission> submissions, Grade[] grades, int from, int to) {
+        for (int i=from;i<to;i++){
+            grades[i]=grade(submissions.get(i));
+        }
+    }
+
+    private synchronized ExecutorService getWorkers() {
+        if (workers==null){
+            workers=Executors.newFixedThreadPool(threads,new ThreadFactory() {
+                private int created=0;
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread=new Thread(r,"GradingWorker-"+created++);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return workers;
+    }
+
+    /**
+     * Stops the worker threads. The engine can still be used, it starts them again if it needs them.
+     */
+    public synchronized void shutdown() {
+        if (workers!=null){
+            workers.shutdown();
+            workers=null;
+        }
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public int getThreads() {
+        return threads;
+    }
+}
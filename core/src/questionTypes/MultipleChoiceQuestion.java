@@ -1,6 +1,6 @@
 package questionTypes;
 
-public class MultipleChoiceQuestion {
+public class MultipleChoiceQuestion implements Question {
 
     /**
      * Represents a multiple choice question with four options and a correct answer.
@@ -38,10 +38,23 @@ public class MultipleChoiceQuestion {
         this.correctAnswer = correctAnswer;
     }
 
+    /**
+     * The answer is the letter of the option checked, which is right when it is the first letter of the correct answer.
+     */
+    @Override
+    public boolean grade(Answer answer) {
+        if (answer.size()!=1 || correctAnswer.isEmpty()){
+            return false;
+        }
+        String letter=answer.getResponse(0);
+        return letter.length()==1 && letter.charAt(0)==correctAnswer.charAt(0);
+    }
+
     /////////////////////////
     // GETTERS AND SETTERS //
     /////////////////////////
 
+    @Override
     public String getQuestion() {
         return question;
     }
@@ -0,0 +1,17 @@
+package questionTypes;
+
+public interface Question {
+
+    /**
+     * A question of a test, whatever its type. Grading a question only compares the answer with the
+     * correct answers of the question, so it needs no screen or GL context and can run on any thread.
+     */
+    String getQuestion();
+
+    /**
+     * Returns true if the answer is right. Answers with a wrong number of responses are wrong.
+     *
+     * @param answer The answer given to this question
+     */
+    boolean grade(Answer answer);
+}
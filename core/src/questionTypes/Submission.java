@@ -0,0 +1,35 @@
+package questionTypes;
+
+import java.util.List;
+
+public class Submission {
+
+    /**
+     * An attempt at a test: the questions of the test and the answer given to each of them, in the same order.
+     *
+     * @param questions The questions of the test
+     * @param answers The answers given, one per question
+     */
+    private final List<? extends Question> questions;
+    private final List<Answer> answers;
+
+    public Submission(List<? extends Question> questions, List<Answer> answers) {
+        if (questions.size()!=answers.size()){
+            throw new IllegalArgumentException(questions.size()+" questions need "+questions.size()+" answers, not "+answers.size());
+        }
+        this.questions=questions;
+        this.answers=answers;
+    }
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public List<? extends Question> getQuestions() {
+        return questions;
+    }
+
+    public List<Answer> getAnswers() {
+        return answers;
+    }
+}
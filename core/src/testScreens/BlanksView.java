@@ -0,0 +1,89 @@
+package testScreens;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import questionTypes.Answer;
+import questionTypes.Question;
+
+import java.util.ArrayList;
+
+public abstract class BlanksView<Q extends Question, F extends Actor> extends QuestionView<Q> {
+
+    /**
+     * A view of a question with numbered blanks, one widget per blank under the question.
+     * The rows of the blanks are created the first time a question needs them and kept, so a test
+     * builds as many rows as its question with the most blanks, whatever its length. Rows the
+     * current question does not use are taken out of the table but not destroyed.
+     *
+     * @param titleLabel The label with the number of the question
+     * @param questionLabel The label with the text of the question
+     * @param labels The labels with the numbers of the blanks
+     * @param fields The widgets of the blanks
+     * @param blanks The number of blanks of the question bound last
+     */
+    private final Label titleLabel;
+    private final Label questionLabel;
+    private final ArrayList<Label> labels=new ArrayList<>();
+    private final ArrayList<F> fields=new ArrayList<>();
+    private int blanks=0;
+
+    protected BlanksView(Skin skin) {
+        super(skin);
+        titleLabel=new Label("",skin,"title");
+        questionLabel=new Label("",skin,"button");
+        questionLabel.setWrap(true);
+    }
+
+    @Override
+    public void bind(int number, Q question) {
+        titleLabel.setText("Pregunta "+number+": ");
+        questionLabel.setText(question.getQuestion());
+        blanks=blanksOf(question);
+
+        //Create the rows this question needs and no test needed before
+        while (fields.size()<blanks){
+            labels.add(new Label((fields.size()+1)+": ",skin,"button"));
+            fields.add(createField());
+        }
+
+        table.clearChildren();
+        table.add(titleLabel).colspan(2).padBottom(25).row();
+        table.add(questionLabel).colspan(2).width(800).padBottom(50).row();
+        for (int i=0;i<blanks;i++){
+            F field=fields.get(i);
+            bindField(field,question);
+            table.add(labels.get(i)).left().width(50).height(50).padBottom(50);
+            table.add(field).left().width(600).height(100).padBottom(50).row();
+        }
+    }
+
+    @Override
+    public Answer getAnswer() {
+        ArrayList<String> responses=new ArrayList<>(blanks);
+        for (int i=0;i<blanks;i++){
+            responses.add(readField(fields.get(i)));
+        }
+        return new Answer(responses);
+    }
+
+    /**
+     * Returns the number of blanks of a question.
+     */
+    protected abstract int blanksOf(Q question);
+
+    /**
+     * Creates the widget of a blank, called only when there are not enough of them yet.
+     */
+    protected abstract F createField();
+
+    /**
+     * Resets the widget of a blank for a question, with nothing answered.
+     */
+    protected abstract void bindField(F field, Q question);
+
+    /**
+     * Returns the response written or chosen in the widget of a blank.
+     */
+    protected abstract String readField(F field);
+}
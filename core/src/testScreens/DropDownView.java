@@ -0,0 +1,46 @@
+package testScreens;
+
+import com.badlogic.gdx.scenes.scene2d.ui.SelectBox;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import questionTypes.DropDownQuestion;
+
+public class DropDownView extends BlanksView<DropDownQuestion, SelectBox<String>> {
+
+    /**
+     * The view of a drop down question, a box with the options of the question for each blank.
+     *
+     * @param options The options of the question being bound, shared by its boxes
+     */
+    private String[] options;
+
+    public DropDownView(Skin skin) {
+        super(skin);
+    }
+
+    @Override
+    public void bind(int number, DropDownQuestion question) {
+        options=question.getOptions().toArray(new String[question.getNumberOptions()]);
+        super.bind(number,question);
+    }
+
+    @Override
+    protected int blanksOf(DropDownQuestion question) {
+        return question.getNumberBlanks();
+    }
+
+    @Override
+    protected SelectBox<String> createField() {
+        return new SelectBox<>(skin);
+    }
+
+    //Setting the items selects the first one again
+    @Override
+    protected void bindField(SelectBox<String> field, DropDownQuestion question) {
+        field.setItems(options);
+    }
+
+    @Override
+    protected String readField(SelectBox<String> field) {
+        return field.getSelected();
+    }
+}
@@ -15,6 +15,8 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
 import gameApp.Game;
+import gameHelpers.SkinRegistry;
+import gameHelpers.TextureCache;
 
 import java.util.ArrayList;
 
@@ -23,7 +25,12 @@ public class EndTestScreen extends ScreenAdapter{
     /**
      * A class representing a game screen.
      * Contains a game, a stage, a table, two skins, a list of results, and an end button.
+     * The screen is reused between tests, reset rebuilds the message and the results of the last test.
+     *
+     * @param answers The paths of the images of the results being shown, released when they change
      */
+    private static final String TITLE="Title/title.png";
+
     private Game game;
 
     private Stage stage;
@@ -32,14 +39,14 @@ public class EndTestScreen extends ScreenAdapter{
     private Skin skin;
     private Skin skinDialog;
 
-    private ArrayList<Integer> results;
+    private Label label;
+    private final ArrayList<String> answers=new ArrayList<>();
 
     private TextButton endButton;
 
-    public EndTestScreen(Game game, boolean passed, ArrayList<Integer> results) {
+    public EndTestScreen(Game game) {
 
         this.game = game;
-        this.results=results;
 
         stage = new Stage(new ScreenViewport());
         Gdx.input.setInputProcessor(stage);
@@ -48,35 +55,25 @@ public class EndTestScreen extends ScreenAdapter{
         table.setFillParent(true);
 
         //loads skins from files
-        skin = new Skin(Gdx.files.internal("Skin/flat-earth-ui.json"));
-        skinDialog = new Skin(Gdx.files.internal("SkinDialog/terra-mother-ui.json"));
-
-        
-        /**
-         * Creates a label and sets its position. If the player has passed the test, the label will display a congratulatory message
-         * and will be added to the stage. If the player has failed the test, the label will display a message indicating that they have lost a life
-         * and will display the results of the test. The results are displayed as images of hearts.
-         */
-        Label label = new Label("", skinDialog, "black");
+        skin = game.getSkins().acquire(SkinRegistry.FLAT_EARTH);
+        skinDialog = game.getSkins().acquire(SkinRegistry.TERRA_MOTHER);
+
+        label = new Label("", skinDialog, "black");
         label.setPosition(300,Gdx.graphics.getHeight()/2+50);
-        if(passed){
-            label.setText("Enhorabuena, has superado la prueba!! \nBusca la siguiente prueba por el mapa.");
-            stage.addActor(label);
-        }else{
-            table.row();
-            label.setText("No has superado la prueba, pierdes una vida. \nEste es el resultado de la prueba:");
-            stage.addActor(label);
-            for (Integer i: results){
-                Image answer= new Image(new Texture("Lives/"+i+".png"));
-                table.add(answer).padTop(100);
-            }
-            table.row();
-        }
+        stage.addActor(label);
 
         endButton =new TextButton("Volver al Juego",skin);
 
+        //When the end button is clicked, the game will return to the map.
+        endButton.addListener(new ClickListener(){
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                game.returnGame();
+            }
+        });
+
         //Create image textures and adds to table
-        Texture texture = new Texture(Gdx.files.internal("Title/title.png"));
+        Texture texture = TextureCache.acquire(TITLE);
         Image titleImage = new Image(texture);
         titleImage.setSize(texture.getWidth()*3,texture.getHeight()*3);
         titleImage.setPosition(300,Gdx.graphics.getHeight()*2/3);
@@ -86,21 +83,43 @@ public class EndTestScreen extends ScreenAdapter{
     }
 
     /**
-     * Shows the end game screen with the end button and sets the input processor to the stage.
-     * When the end button is clicked, the game will return to the main menu.
+     * Sets the message and the results of the test that has just ended.
+     * If the player has passed the test, the label will display a congratulatory message.
+     * If the player has failed the test, the label will display a message indicating that they have lost a life
+     * and will display the results of the test. The results are displayed as images of hearts.
+     *
+     * @param passed Whether the test was passed
+     * @param results The result of each question of the test
      */
-    @Override
-    public void show() {
+    public void reset(boolean passed, ArrayList<Integer> results) {
+        table.clearChildren();
+        //The images of the previous results are not needed anymore
+        for (String answer: answers){
+            TextureCache.release(answer);
+        }
+        answers.clear();
 
-        endButton.addListener(new ClickListener(){
-            @Override
-            public void clicked(InputEvent event, float x, float y) {
-                game.returnGame();
+        if(passed){
+            label.setText("Enhorabuena, has superado la prueba!! \nBusca la siguiente prueba por el mapa.");
+        }else{
+            table.row();
+            label.setText("No has superado la prueba, pierdes una vida. \nEste es el resultado de la prueba:");
+            for (Integer i: results){
+                String answer="Lives/"+i+".png";
+                answers.add(answer);
+                table.add(new Image(TextureCache.acquire(answer))).padTop(100);
             }
-        });
+            table.row();
+        }
 
         table.add(endButton).colspan(results.size()).padTop(20).width(300).height(50);
+    }
 
+    /**
+     * Shows the end test screen and sets the input processor to the stage.
+     */
+    @Override
+    public void show() {
         Gdx.input.setInputProcessor(stage);
     }
 
@@ -126,5 +145,12 @@ public class EndTestScreen extends ScreenAdapter{
     @Override
     public void dispose() {
         stage.dispose();
+        game.getSkins().release(SkinRegistry.FLAT_EARTH);
+        game.getSkins().release(SkinRegistry.TERRA_MOTHER);
+        TextureCache.release(TITLE);
+        for (String answer: answers){
+            TextureCache.release(answer);
+        }
+        answers.clear();
     }
 }
@@ -0,0 +1,37 @@
+package testScreens;
+
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.TextField;
+import questionTypes.FillInTheGapQuestion;
+
+public class FillInTheGapView extends BlanksView<FillInTheGapQuestion, TextField> {
+
+    /**
+     * The view of a fill in the gap question, a text field for each blank.
+     */
+    private static final String PLACEHOLDER="Escribe aqui tu respuesta";
+
+    public FillInTheGapView(Skin skin) {
+        super(skin);
+    }
+
+    @Override
+    protected int blanksOf(FillInTheGapQuestion question) {
+        return question.getNumberBlanks();
+    }
+
+    @Override
+    protected TextField createField() {
+        return new TextField(PLACEHOLDER,skin);
+    }
+
+    @Override
+    protected void bindField(TextField field, FillInTheGapQuestion question) {
+        field.setText(PLACEHOLDER);
+    }
+
+    @Override
+    protected String readField(TextField field) {
+        return field.getText();
+    }
+}
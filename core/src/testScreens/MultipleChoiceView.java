@@ -0,0 +1,55 @@
+package testScreens;
+
+import com.badlogic.gdx.scenes.scene2d.ui.ButtonGroup;
+import com.badlogic.gdx.scenes.scene2d.ui.CheckBox;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import questionTypes.Answer;
+import questionTypes.MultipleChoiceQuestion;
+
+public class MultipleChoiceView extends QuestionView<MultipleChoiceQuestion> {
+
+    /**
+     * The view of a multiple choice question, the question and its four options as radio buttons.
+     * Exactly one option is checked at any time, the first one when a question is bound.
+     *
+     * @param questionLabel The label with the number and the text of the question
+     * @param options The radio buttons of the options, in the order of their letters
+     * @param group The group that keeps one option checked
+     */
+    private static final String[] LETTERS={"a","b","c","d"};
+
+    private final Label questionLabel;
+    private final CheckBox[] options=new CheckBox[LETTERS.length];
+    private final ButtonGroup<CheckBox> group;
+
+    public MultipleChoiceView(Skin skin) {
+        super(skin);
+        questionLabel=new Label("",skin,"title");
+        questionLabel.setWrap(true);
+        table.add(questionLabel).width(800).padBottom(50).row();
+
+        for (int i=0;i<options.length;i++){
+            options[i]=new CheckBox("",skin,"radio");
+            table.add(options[i]).left().width(800).height(50).padBottom(20).row();
+        }
+        group=new ButtonGroup<>(options);
+        group.setMaxCheckCount(1);
+        group.setMinCheckCount(1);
+    }
+
+    @Override
+    public void bind(int number, MultipleChoiceQuestion question) {
+        questionLabel.setText("Pregunta "+number+": "+question.getQuestion());
+        options[0].setText(question.getOptionA());
+        options[1].setText(question.getOptionB());
+        options[2].setText(question.getOptionC());
+        options[3].setText(question.getOptionD());
+        options[0].setChecked(true);
+    }
+
+    @Override
+    public Answer getAnswer() {
+        return new Answer(LETTERS[group.getCheckedIndex()]);
+    }
+}
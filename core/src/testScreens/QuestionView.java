@@ -0,0 +1,46 @@
+package testScreens;
+
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import questionTypes.Answer;
+import questionTypes.Question;
+
+public abstract class QuestionView<Q extends Question> {
+
+    /**
+     * The widgets that show a question of one type. A test screen keeps a single view and binds it to
+     * each question in turn, so going to the next question changes the text and items of the same
+     * actors instead of building new ones. The answer is read from the widgets before the view is
+     * bound to the next question.
+     *
+     * @param skin The skin of the widgets
+     * @param table The table holding the widgets, added once to the screen
+     */
+    protected final Skin skin;
+    protected final Table table=new Table();
+
+    protected QuestionView(Skin skin) {
+        this.skin=skin;
+    }
+
+    /**
+     * Shows a question in the widgets of the view, with nothing answered yet.
+     *
+     * @param number The number of the question in the test, starting at 1
+     * @param question The question to show
+     */
+    public abstract void bind(int number, Q question);
+
+    /**
+     * Returns the answer given in the widgets to the question bound last.
+     */
+    public abstract Answer getAnswer();
+
+    /////////////////////////
+    // GETTERS AND SETTERS //
+    /////////////////////////
+
+    public Table getTable() {
+        return table;
+    }
+}
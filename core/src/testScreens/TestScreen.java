@@ -0,0 +1,16 @@
+package testScreens;
+
+import com.badlogic.gdx.Screen;
+
+public interface TestScreen extends Screen {
+
+    /**
+     * Lays out the first question for a window size before the screen is shown, so its first frame has
+     * nothing left to build. Test screens may be built while another screen is shown, so they take the
+     * input only in show.
+     *
+     * @param width The width of the window
+     * @param height The height of the window
+     */
+    void prepare(int width, int height);
+}
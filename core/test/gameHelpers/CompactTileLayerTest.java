@@ -0,0 +1,74 @@
+package gameHelpers;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompactTileLayerTest {
+
+    /**
+     * Compacts the TMX map of the game and compares the heap its tile layers keep as TiledMapTileLayer
+     * and as CompactTileLayer. The heap is the used heap after a garbage collection, so it is an estimate.
+     * It is measured here and not when the game loads the map, because collecting the garbage on purpose
+     * would freeze the loading.
+     */
+    private static final String TMX_MAP="Map/icaiMap.tmx";
+
+    private TiledMap map;
+
+    @Before
+    public void setUp() {
+        HeadlessGdx.start();
+        map=new TmxMapLoader().load(TMX_MAP);
+    }
+
+    @After
+    public void tearDown() {
+        map.dispose();
+    }
+
+    @Test
+    public void compactLayersKeepLessHeap() {
+        //Keep the old layers reachable until both versions have been measured
+        ArrayList<MapLayer> old=new ArrayList<>();
+        for (MapLayer layer: map.getLayers()){
+            old.add(layer);
+        }
+        long before=usedHeap();
+        CompactTileLayer.compact(map);
+        long both=usedHeap();
+        int layers=old.size();
+        old.clear();
+        long after=usedHeap();
+
+        long tiledBytes=both-after;
+        long compactBytes=both-before;
+        System.out.println("Heap kept by the tile layers of "+TMX_MAP+": "+tiledBytes/1024+" KB as TiledMapTileLayer, "
+                +compactBytes/1024+" KB as CompactTileLayer");
+
+        assertEquals(layers,map.getLayers().size());
+        for (MapLayer layer: map.getLayers()){
+            assertFalse(layer.getName(),layer instanceof TiledMapTileLayer);
+        }
+        assertTrue("The compact layers keep "+compactBytes+" bytes, the tile layers "+tiledBytes,compactBytes<tiledBytes);
+    }
+
+    //Returns the heap in use after collecting the garbage, System.gc is only a request so it is asked a few times
+    private static long usedHeap() {
+        Runtime runtime=Runtime.getRuntime();
+        for (int i=0;i<3;i++){
+            System.gc();
+        }
+        return runtime.totalMemory()-runtime.freeMemory();
+    }
+}
@@ -0,0 +1,118 @@
+package gameHelpers;
+
+import com.badlogic.gdx.Input;
+import model.NPC;
+import model.NPCNoTest;
+import model.Player;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+public class GameUpdaterAllocationTest {
+
+    /**
+     * Checks that a simulation step does not allocate once the game is running: the player walks
+     * around a walled room full of NPCs, turning at the walls, while the bytes allocated by the test
+     * thread are sampled from the thread MX bean.
+     */
+    private static final float STEP=1/60f;
+    private static final int WARMUP_TICKS=1000;
+    private static final int TICKS=5000;
+    private static final int SAMPLE_TICKS=500;
+    private static final int TICKS_PER_KEY=300;
+    private static final int SIZE=32;
+
+    //The keys held in turn, so the player walks in every direction and bumps into the walls
+    private static final int[] KEYS={Input.Keys.D, Input.Keys.W, Input.Keys.A, Input.Keys.S};
+
+    private Player player;
+    private ArrayList<NPC> npcs;
+    private InputQueue input;
+    private GameUpdater updater;
+    private int tick=0;
+
+    @Before
+    public void setUp() {
+        HeadlessGdx.start();
+
+        //A room with walls all around it
+        long[] bits=new long[(SIZE*SIZE+63)/64];
+        for (int i=0;i<SIZE;i++){
+            block(bits,i,0);
+            block(bits,i,SIZE-1);
+            block(bits,0,i);
+            block(bits,SIZE-1,i);
+        }
+
+        npcs=new ArrayList<>();
+        for (int i=0;i<20;i++){
+            npcs.add(new NPCNoTest(2+i,4+(i%3)*10,"People/Secundarios/Character.png","npc"+i,"Hola"));
+        }
+
+        player=new Player(SIZE/2,SIZE/2,"ChicoProtagonista","frente");
+        input=new InputQueue();
+        updater=new GameUpdater(player,new CollisionGrid(SIZE,SIZE,bits),new TriggerIndex(SIZE,SIZE),npcs,input);
+    }
+
+    @After
+    public void tearDown() {
+        input.dispose();
+        player.dispose();
+        for (NPC npc: npcs){
+            npc.dispose();
+        }
+        TextureCache.clear();
+    }
+
+    @Test
+    public void stepsDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads=(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread=Thread.currentThread().getId();
+
+        //Load the classes and let the JIT compile the step first
+        run(WARMUP_TICKS);
+
+        //The walk frames are acquired with the player, walking must not load or release any texture
+        int misses=TextureCache.getMisses();
+        int textures=TextureCache.getLiveTextures();
+
+        //What reading the counter costs, to subtract it from each sample
+        long before=threads.getThreadAllocatedBytes(thread);
+        long overhead=threads.getThreadAllocatedBytes(thread)-before;
+
+        for (int sample=0;sample<TICKS/SAMPLE_TICKS;sample++){
+            before=threads.getThreadAllocatedBytes(thread);
+            run(SAMPLE_TICKS);
+            long allocated=threads.getThreadAllocatedBytes(thread)-before-overhead;
+            assertEquals("Bytes allocated in sample "+sample, 0, allocated);
+        }
+        assertEquals(misses,TextureCache.getMisses());
+        assertEquals(textures,TextureCache.getLiveTextures());
+    }
+
+    //Runs simulation steps like the game screen does, switching the held key from time to time
+    private void run(int ticks) {
+        for (int i=0;i<ticks;i++){
+            if (tick%TICKS_PER_KEY==0){
+                int key=(tick/TICKS_PER_KEY)%KEYS.length;
+                if (tick>0){
+                    input.keyUp(KEYS[(key+KEYS.length-1)%KEYS.length]);
+                }
+                input.keyDown(KEYS[key]);
+            }
+            input.poll();
+            updater.update(STEP);
+            tick+=1;
+        }
+    }
+
+    private static void block(long[] bits, int x, int y) {
+        int index=x+y*SIZE;
+        bits[index>>>6]|=1L<<(index&63);
+    }
+}
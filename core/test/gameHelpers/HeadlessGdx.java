@@ -0,0 +1,98 @@
+package gameHelpers;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.implementation.StubMethod;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.nio.IntBuffer;
+
+public final class HeadlessGdx {
+
+    /**
+     * Starts libGDX once for the tests, on the headless backend.
+     * The headless backend has no GL context, so GL is mocked: textures can be created and
+     * disposed and shaders compile, so batches can be created, but nothing is drawn.
+     * The images are still decoded from the assets folder.
+     *
+     * @param application The headless application
+     * @param mockGl The mocked GL, set by default
+     * @param silentGl A GL that does nothing, created when it is first used
+     */
+    private static HeadlessApplication application;
+    private static GL20 mockGl;
+    private static GL20 silentGl;
+
+    private HeadlessGdx() {
+    }
+
+    /**
+     * Starts the headless application and mocks GL, if it has not been started yet.
+     */
+    public static synchronized void start() {
+        if (application!=null){
+            return;
+        }
+        HeadlessApplicationConfiguration config=new HeadlessApplicationConfiguration();
+        //The tests drive the game themselves, the application loop does not render
+        config.updatesPerSecond=-1;
+        application=new HeadlessApplication(new ApplicationAdapter() {},config);
+
+        mockGl=Mockito.mock(GL20.class);
+        //Shaders and programs get a handle and report that they compiled and linked
+        Mockito.when(mockGl.glCreateShader(Mockito.anyInt())).thenReturn(1);
+        Mockito.when(mockGl.glCreateProgram()).thenReturn(1);
+        Answer<Void> status=new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                int name=(Integer) invocation.getArguments()[1];
+                if (name==GL20.GL_COMPILE_STATUS || name==GL20.GL_LINK_STATUS){
+                    ((IntBuffer) invocation.getArguments()[2]).put(0,1);
+                }
+                return null;
+            }
+        };
+        Mockito.doAnswer(status).when(mockGl).glGetShaderiv(Mockito.anyInt(),Mockito.anyInt(),Mockito.any(IntBuffer.class));
+        Mockito.doAnswer(status).when(mockGl).glGetProgramiv(Mockito.anyInt(),Mockito.anyInt(),Mockito.any(IntBuffer.class));
+        Gdx.gl=mockGl;
+        Gdx.gl20=mockGl;
+    }
+
+    /**
+     * Switches between the mocked GL and a GL that does nothing. The mock records every call it gets,
+     * so it allocates, the silent GL can be used to measure the allocations of drawing.
+     * Shaders do not compile with the silent GL, everything must be created before switching to it.
+     *
+     * @param silent Whether to use the silent GL instead of the mock
+     */
+    public static synchronized void useSilentGl(boolean silent) {
+        if (silent && silentGl==null){
+            try {
+                //Every method returns 0, false or null
+                silentGl=new ByteBuddy()
+                        .subclass(Object.class)
+                        .implement(GL20.class)
+                        .method(ElementMatchers.isDeclaredBy(GL20.class))
+                        .intercept(StubMethod.INSTANCE)
+                        .make()
+                        .load(HeadlessGdx.class.getClassLoader())
+                        .getLoaded()
+                        .asSubclass(GL20.class)
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("The silent GL could not be created",e);
+            }
+        }
+        GL20 gl=silent ? silentGl : mockGl;
+        Gdx.gl=gl;
+        Gdx.gl20=gl;
+    }
+}
@@ -0,0 +1,79 @@
+package gameHelpers;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LivesHudTest {
+
+    /**
+     * Checks that the lives HUD does not grow the stage or the texture cache while the lives change:
+     * it is updated every frame for 10,000 frames, losing a life or starting over every 100 frames.
+     */
+    private static final int FRAMES=10000;
+    private static final int FRAMES_PER_CHANGE=100;
+    private static final float DELTA=1/60f;
+
+    private Stage stage;
+    private LivesHud hud;
+
+    @Before
+    public void setUp() {
+        HeadlessGdx.start();
+        //The stage is only acted, a mocked batch is enough
+        stage=new Stage(new ScreenViewport(),Mockito.mock(Batch.class));
+        hud=new LivesHud(stage,10,575);
+    }
+
+    @After
+    public void tearDown() {
+        stage.dispose();
+        TextureCache.clear();
+    }
+
+    @Test
+    public void stageAndTexturesStayFlat() {
+        hud.update(3);
+        stage.act(DELTA);
+        int actors=stage.getActors().size;
+        int textures=TextureCache.getLiveTextures();
+        long bytes=TextureCache.getLiveBytes();
+
+        for (int frame=0;frame<FRAMES;frame++){
+            //3, 2, 1 and 0 lives, then a new game
+            int lives=3-(frame/FRAMES_PER_CHANGE)%4;
+            hud.update(lives);
+            stage.act(DELTA);
+
+            assertEquals("Actors at frame "+frame,actors,stage.getActors().size);
+            assertEquals("Textures at frame "+frame,textures,TextureCache.getLiveTextures());
+            assertEquals("Texture bytes at frame "+frame,bytes,TextureCache.getLiveBytes());
+        }
+    }
+
+    @Test
+    public void hiddenWithoutLives() {
+        hud.update(2);
+        assertTrue(stage.getActors().first().isVisible());
+        hud.update(0);
+        assertFalse(stage.getActors().first().isVisible());
+        hud.update(4);
+        assertFalse(stage.getActors().first().isVisible());
+    }
+
+    @Test
+    public void disposeReleasesEverything() {
+        int textures=TextureCache.getLiveTextures();
+        hud.dispose();
+        assertEquals(0,stage.getActors().size);
+        assertEquals(textures-3,TextureCache.getLiveTextures());
+    }
+}
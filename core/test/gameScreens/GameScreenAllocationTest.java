@@ -0,0 +1,179 @@
+package gameScreens;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import gameApp.Game;
+import gameHelpers.BinaryMapLoader;
+import gameHelpers.HeadlessGdx;
+import gameHelpers.InputQueue;
+import gameHelpers.SkinRegistry;
+import gameHelpers.SpriteAtlas;
+import gameHelpers.TextureCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class GameScreenAllocationTest {
+
+    /**
+     * Checks that a frame of the game screen does not allocate once the game is running, the game cycle
+     * and the drawing of the map, the people and the stages included. The screen is built from the assets
+     * of its manifest like the game builds it, and the player walks around the map from where a new game
+     * starts while the bytes allocated by the test thread are sampled from the thread MX bean.
+     * Opening a dialog splits its text in pages, which allocates, so the player only walks.
+     *
+     * @param assets The asset manager the screen gets its map, skins and textures from
+     * @param skins The skins of the screen
+     * @param game The game of the screen, with only what the screen asks for
+     * @param screen The game screen being measured
+     * @param input The command queue of the screen
+     * @param frame The number of frames rendered
+     */
+    private static final float STEP=1/60f;
+    private static final int WARMUP_FRAMES=1000;
+    private static final int FRAMES=5000;
+    private static final int SAMPLE_FRAMES=500;
+    private static final int FRAMES_PER_KEY=300;
+
+    //The keys held in turn, so the player walks in every direction and bumps into the walls
+    private static final int[] KEYS={Input.Keys.D, Input.Keys.W, Input.Keys.A, Input.Keys.S};
+
+    private AssetManager assets;
+    private SkinRegistry skins;
+    private Game game;
+    private GameScreen screen;
+    private InputQueue input;
+    private int frame=0;
+
+    @Before
+    public void setUp() throws FileNotFoundException {
+        HeadlessGdx.start();
+
+        //The loaders and caches of the game
+        assets=new AssetManager();
+        assets.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
+        assets.setLoader(TiledMap.class, BinaryMapLoader.EXTENSION, new BinaryMapLoader(new InternalFileHandleResolver()));
+        TextureCache.setAssetManager(assets);
+        SpriteAtlas.setAssetManager(assets);
+        skins=new SkinRegistry(assets);
+
+        GameScreen.manifest().queue(assets);
+        assets.finishLoading();
+
+        //The menus, the music and the tests are never created, nothing here starts them
+        game=new Game() {
+            @Override
+            public AssetManager getAssets() {
+                return assets;
+            }
+
+            @Override
+            public SkinRegistry getSkins() {
+                return skins;
+            }
+
+            @Override
+            public int getLives() {
+                return 3;
+            }
+
+            @Override
+            public float getMusicVolume() {
+                return 0.3f;
+            }
+
+            @Override
+            public int getNextTestNumber() {
+                return 1;
+            }
+
+            @Override
+            public void prepareTest(int testNumber) {
+            }
+
+            @Override
+            public void startTest(int testNumber) {
+            }
+        };
+
+        //A new game, with the keys the game saves under
+        ArrayList<String> keys=new ArrayList<>(Arrays.asList("lives","nextTest","name","gender","x","y","direction"));
+        HashMap<String, String> saveData=new HashMap<>();
+        saveData.put("name","Test");
+        saveData.put("gender","ChicoProtagonista");
+        saveData.put("x","13");
+        saveData.put("y","70");
+        saveData.put("direction","frente");
+
+        screen=new GameScreen(game,saveData,keys);
+        game.setScreen(screen);
+        input=screen.getInputQueue();
+
+        //Everything is created, the frames are drawn with a GL that does not record the calls
+        HeadlessGdx.useSilentGl(true);
+    }
+
+    @After
+    public void tearDown() {
+        HeadlessGdx.useSilentGl(false);
+        //Released in the order the game releases them
+        screen.dispose();
+        TextureCache.clear();
+        SpriteAtlas.dispose();
+        skins.dispose();
+        assets.dispose();
+        TextureCache.setAssetManager(null);
+        SpriteAtlas.setAssetManager(null);
+    }
+
+    @Test
+    public void framesDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads=(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread=Thread.currentThread().getId();
+
+        //Load the classes, fill the pools and let the JIT compile the frame first
+        run(WARMUP_FRAMES);
+
+        int misses=TextureCache.getMisses();
+        int textures=TextureCache.getLiveTextures();
+
+        //What reading the counter costs, to subtract it from each sample
+        long before=threads.getThreadAllocatedBytes(thread);
+        long overhead=threads.getThreadAllocatedBytes(thread)-before;
+
+        for (int sample=0;sample<FRAMES/SAMPLE_FRAMES;sample++){
+            before=threads.getThreadAllocatedBytes(thread);
+            run(SAMPLE_FRAMES);
+            long allocated=threads.getThreadAllocatedBytes(thread)-before-overhead;
+            assertEquals("Bytes allocated in sample "+sample, 0, allocated);
+        }
+        assertEquals(misses,TextureCache.getMisses());
+        assertEquals(textures,TextureCache.getLiveTextures());
+    }
+
+    //Renders frames like the game loop does, switching the held key from time to time
+    private void run(int frames) {
+        for (int i=0;i<frames;i++){
+            if (frame%FRAMES_PER_KEY==0){
+                int key=(frame/FRAMES_PER_KEY)%KEYS.length;
+                if (frame>0){
+                    input.keyUp(KEYS[(key+KEYS.length-1)%KEYS.length]);
+                }
+                input.keyDown(KEYS[key]);
+            }
+            screen.render(STEP);
+            frame+=1;
+        }
+    }
+}
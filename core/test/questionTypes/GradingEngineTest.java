@@ -0,0 +1,162 @@
+package questionTypes;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GradingEngineTest {
+
+    private GradingEngine engine;
+
+    @After
+    public void tearDown() {
+        if (engine!=null){
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    public void multipleChoiceRightAnswer() {
+        Grade grade=GradingEngine.grade(submission(multipleChoice(),new Answer("B")));
+        assertEquals(Arrays.asList(1),grade.getResults());
+        assertEquals(1,grade.getScore());
+        assertTrue(grade.isPassed());
+    }
+
+    @Test
+    public void multipleChoiceWrongAnswer() {
+        Grade grade=GradingEngine.grade(submission(multipleChoice(),new Answer("C")));
+        assertEquals(Arrays.asList(0),grade.getResults());
+        assertFalse(grade.isPassed());
+
+        //Only the letter of the option is an answer
+        assertFalse(GradingEngine.grade(submission(multipleChoice(),new Answer("B) Dos"))).isPassed());
+    }
+
+    @Test
+    public void multipleChoiceWrongNumberOfBlanks() {
+        assertFalse(GradingEngine.grade(submission(multipleChoice(),new Answer())).isPassed());
+        assertFalse(GradingEngine.grade(submission(multipleChoice(),new Answer("B","B"))).isPassed());
+    }
+
+    @Test
+    public void dropDownRightAnswer() {
+        Grade grade=GradingEngine.grade(submission(dropDown(),new Answer("int","float")));
+        assertEquals(Arrays.asList(1),grade.getResults());
+        assertTrue(grade.isPassed());
+    }
+
+    @Test
+    public void dropDownWrongAnswer() {
+        assertFalse(GradingEngine.grade(submission(dropDown(),new Answer("int","char"))).isPassed());
+        //The options must be in the order of the boxes
+        assertFalse(GradingEngine.grade(submission(dropDown(),new Answer("float","int"))).isPassed());
+    }
+
+    @Test
+    public void dropDownWrongNumberOfBlanks() {
+        assertFalse(GradingEngine.grade(submission(dropDown(),new Answer("int"))).isPassed());
+        assertFalse(GradingEngine.grade(submission(dropDown(),new Answer("int","float","char"))).isPassed());
+    }
+
+    @Test
+    public void fillInTheGapRightAnswer() {
+        Grade grade=GradingEngine.grade(submission(fillInTheGap(),new Answer("malloc","free")));
+        assertEquals(Arrays.asList(1),grade.getResults());
+        assertTrue(grade.isPassed());
+    }
+
+    @Test
+    public void fillInTheGapWrongAnswer() {
+        assertFalse(GradingEngine.grade(submission(fillInTheGap(),new Answer("malloc","delete"))).isPassed());
+        //The text must be exactly the answer
+        assertFalse(GradingEngine.grade(submission(fillInTheGap(),new Answer("malloc ","free"))).isPassed());
+        assertFalse(GradingEngine.grade(submission(fillInTheGap(),new Answer("Malloc","free"))).isPassed());
+    }
+
+    @Test
+    public void fillInTheGapWrongNumberOfBlanks() {
+        assertFalse(GradingEngine.grade(submission(fillInTheGap(),new Answer("malloc"))).isPassed());
+        assertFalse(GradingEngine.grade(submission(fillInTheGap(),new Answer())).isPassed());
+    }
+
+    @Test
+    public void mixedTestCountsEveryQuestion() {
+        List<Question> questions=Arrays.<Question>asList(multipleChoice(),dropDown(),fillInTheGap());
+        List<Answer> answers=Arrays.asList(new Answer("B"),new Answer("int","char"),new Answer("malloc","free"));
+        Grade grade=GradingEngine.grade(new Submission(questions,answers));
+        assertEquals(Arrays.asList(1,0,1),grade.getResults());
+        assertEquals(2,grade.getScore());
+        assertFalse(grade.isPassed());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void submissionNeedsOneAnswerPerQuestion() {
+        new Submission(Arrays.asList(multipleChoice(),dropDown()),Arrays.asList(new Answer("B")));
+    }
+
+    @Test
+    public void gradeAllKeepsTheOrderOfTheBatch() {
+        //Big enough to be split between the worker threads
+        int size=GradingEngine.MIN_PARALLEL_BATCH*8+17;
+        List<Question> questions=Arrays.<Question>asList(multipleChoice(),dropDown(),fillInTheGap());
+        String[][] choices={{"A","B","C"},{"int","float","char"},{"malloc","free","delete"}};
+
+        Random random=new Random(7);
+        ArrayList<Submission> submissions=new ArrayList<>(size);
+        for (int i=0;i<size;i++){
+            submissions.add(new Submission(questions,Arrays.asList(
+                    new Answer(pick(random,choices[0])),
+                    new Answer(pick(random,choices[1]),pick(random,choices[1])),
+                    new Answer(pick(random,choices[2]),pick(random,choices[2])))));
+        }
+
+        engine=new GradingEngine(4);
+        List<Grade> grades=engine.gradeAll(submissions);
+
+        assertEquals(size,grades.size());
+        for (int i=0;i<size;i++){
+            Grade expected=GradingEngine.grade(submissions.get(i));
+            assertEquals("Results of submission "+i,expected.getResults(),grades.get(i).getResults());
+            assertEquals("Score of submission "+i,expected.getScore(),grades.get(i).getScore());
+        }
+    }
+
+    //Returns a test with the given question and answer
+    private static Submission submission(Question question, Answer answer) {
+        return new Submission(Arrays.asList(question),Arrays.asList(answer));
+    }
+
+    private static MultipleChoiceQuestion multipleChoice() {
+        return new MultipleChoiceQuestion("Cuanto es 1+1?","A) Uno","B) Dos","C) Tres","D) Cuatro","B) Dos");
+    }
+
+    private static DropDownQuestion dropDown() {
+        DropDownQuestion question=new DropDownQuestion("El tipo de 1 es _ y el de 1.0f es _",2,3);
+        question.addOption("int");
+        question.addOption("float");
+        question.addOption("char");
+        question.addAnswer("int");
+        question.addAnswer("float");
+        return question;
+    }
+
+    private static FillInTheGapQuestion fillInTheGap() {
+        FillInTheGapQuestion question=new FillInTheGapQuestion("La memoria se reserva con _ y se libera con _",2);
+        question.addAnswer("malloc");
+        question.addAnswer("free");
+        return question;
+    }
+
+    private static String pick(Random random, String[] options) {
+        return options[random.nextInt(options.length)];
+    }
+}
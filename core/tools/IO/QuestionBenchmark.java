@@ -0,0 +1,100 @@
+package IO;
+
+import com.badlogic.gdx.files.FileHandle;
+import questionTypes.Question;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class QuestionBenchmark {
+
+    /**
+     * Compares loading the questions of every test from their JSON files, with the readers the game used
+     * before the bank, and from the compiled bank, both opened lazily and with every question decoded.
+     * Each way is run untimed WARMUP_ROUNDS times so the JIT has compiled it, then timed over ROUNDS runs.
+     * Its heap is what it keeps reachable, measured as the used heap before and after loading once,
+     * each after a garbage collection, so it is an estimate.
+     * Run by QuestionCompiler with --benchmark, from the benchmarkQuestions Gradle task.
+     */
+    private static final int WARMUP_ROUNDS=20;
+    private static final int ROUNDS=50;
+
+    private interface Loader {
+        List<List<? extends Question>> load() throws IOException;
+    }
+
+    public static void run(File testsFile, final File bankFile) throws IOException {
+        final HashMap<Integer, ArrayList<String>> tests=ReadTests.loadTests(new FileHandle(testsFile));
+        final File folder=testsFile.getAbsoluteFile().getParentFile();
+
+        measure("JSON readers", new Loader() {
+            @Override
+            public List<List<? extends Question>> load() throws IOException {
+                ArrayList<List<? extends Question>> loaded=new ArrayList<>();
+                for (ArrayList<String> test: tests.values()){
+                    loaded.add(QuestionCompiler.load(folder,test.get(0),test.get(1)));
+                }
+                return loaded;
+            }
+        });
+        measure("Bank, opened", new Loader() {
+            @Override
+            public List<List<? extends Question>> load() {
+                return open(bankFile,tests.keySet(),false);
+            }
+        });
+        measure("Bank, all decoded", new Loader() {
+            @Override
+            public List<List<? extends Question>> load() {
+                return open(bankFile,tests.keySet(),true);
+            }
+        });
+    }
+
+    //Opens the bank and gets the questions of every test, decoding them all or none
+    private static List<List<? extends Question>> open(File bankFile, Iterable<Integer> testNumbers, boolean decode) {
+        CompiledQuestions bank=CompiledQuestions.open(new FileHandle(bankFile));
+        ArrayList<List<? extends Question>> loaded=new ArrayList<>();
+        for (int testNumber: testNumbers){
+            List<Question> questions=bank.getQuestions(testNumber);
+            if (decode){
+                for (int i=0;i<questions.size();i++){
+                    questions.get(i);
+                }
+            }
+            loaded.add(questions);
+        }
+        return loaded;
+    }
+
+    private static void measure(String name, Loader loader) throws IOException {
+        for (int i=0;i<WARMUP_ROUNDS;i++){
+            loader.load();
+        }
+        long start=System.nanoTime();
+        for (int i=0;i<ROUNDS;i++){
+            loader.load();
+        }
+        float millis=(System.nanoTime()-start)/1000000f/ROUNDS;
+
+        long before=usedHeap();
+        List<List<? extends Question>> kept=loader.load();
+        long heap=usedHeap()-before;
+        int questions=0;
+        for (List<? extends Question> test: kept){
+            questions+=test.size();
+        }
+        System.out.println(String.format("%-18s %8.3f ms per load, %6d KB of heap, %d questions",name,millis,heap/1024,questions));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime=Runtime.getRuntime();
+        for (int i=0;i<3;i++){
+            System.gc();
+        }
+        return runtime.totalMemory()-runtime.freeMemory();
+    }
+}
@@ -0,0 +1,246 @@
+package IO;
+
+import com.badlogic.gdx.files.FileHandle;
+import questionTypes.DropDownQuestion;
+import questionTypes.FillInTheGapQuestion;
+import questionTypes.MultipleChoiceQuestion;
+import questionTypes.Question;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class QuestionCompiler {
+
+    /**
+     * Compiles the questions of every test listed in tests.json into the single binary bank read by
+     * CompiledQuestions, which holds the constants of the format. It runs at build time from the compileQuestions
+     * Gradle task, from the tools source set so it is not shipped with the game. The JSON files are
+     * parsed with the same readers the game used, through absolute file handles, so it needs libGDX on the
+     * classpath but no application.
+     *
+     * The bank is big-endian:
+     *  - Header: MAGIC and VERSION.
+     *  - Tests: the number of tests, then for each test by increasing number its number, its type tag,
+     *    the id of its first question and its number of questions. The questions of a test have consecutive ids.
+     *  - Question index: the number of questions, then the offset of the record of each question from
+     *    the start of the records, by question id.
+     *  - String table: the number of strings, the offset of each string from the start of the string data,
+     *    the length of the string data and the data. Each string is an unsigned short length followed by its
+     *    UTF-8 bytes, and is stored once however many questions use it.
+     *  - Records: for each question, by id, its type tag and the ids of its strings. Multiple choice questions store the
+     *    question, the four options and the correct answer. Drop down questions store the question, the
+     *    number of options and the options, then the number of blanks and their answers. Fill in the gap
+     *    questions store the question, the number of blanks and their answers.
+     * Reading a question only needs two offsets from the index and the strings it uses, so the game decodes
+     * each question when it is shown and never parses the rest of the bank.
+     *
+     * @param strings The strings of the bank in the order of their ids
+     * @param stringIds The id of each string
+     */
+    private final ArrayList<String> strings=new ArrayList<>();
+    private final HashMap<String, Integer> stringIds=new HashMap<>();
+
+    /**
+     * Compiles the tests of the tests file given as first argument into the bank given as second argument.
+     * With --benchmark as third argument, it then compares loading every test from the JSON files and from the bank.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length<2 || args.length>3 || (args.length==3 && !args[2].equals("--benchmark"))){
+            System.err.println("Usage: QuestionCompiler <tests.json> <output> [--benchmark]");
+            System.exit(1);
+        }
+        long start=System.nanoTime();
+        File tests=new File(args[0]);
+        File output=new File(args[1]);
+        new QuestionCompiler().compile(tests,output);
+        System.out.println("Compiled "+args[0]+" into "+output.getPath()+" ("+output.length()/1024+" KB) in "
+                +(System.nanoTime()-start)/1000000+" ms");
+        if (args.length==3){
+            QuestionBenchmark.run(tests,output);
+        }
+    }
+
+    /**
+     * Compiles the questions of the tests listed in a tests file.
+     *
+     * @param testsFile The tests file, the question files are resolved relative to it
+     * @param output The bank file to write
+     * @throws IOException If a file can not be read or written
+     */
+    public void compile(File testsFile, File output) throws IOException {
+        TreeMap<Integer, String> types=new TreeMap<>();
+        TreeMap<Integer, List<? extends Question>> questions=new TreeMap<>();
+        for (Map.Entry<Integer, ArrayList<String>> test: ReadTests.loadTests(new FileHandle(testsFile)).entrySet()){
+            String type=test.getValue().get(0);
+            types.put(test.getKey(),type);
+            questions.put(test.getKey(),load(testsFile.getAbsoluteFile().getParentFile(),type,test.getValue().get(1)));
+        }
+
+        File folder=output.getAbsoluteFile().getParentFile();
+        if (!folder.isDirectory() && !folder.mkdirs()){
+            throw new IOException("Could not create "+folder);
+        }
+        try (OutputStream out=new FileOutputStream(output)){
+            write(types,questions,out);
+        }
+    }
+
+    /**
+     * Loads the questions of a test with the reader of its type.
+     */
+    public static List<? extends Question> load(File folder, String type, String fileName) throws IOException {
+        FileHandle file=new FileHandle(new File(folder,fileName+".json"));
+        if (!file.exists()){
+            throw new IOException(file.path()+" is listed in the tests but does not exist");
+        }
+        if (type.equals(QuestionBank.MULTIPLE_CHOICE)){
+            return ReadMultipleChoice.loadQuestions(file);
+        }
+        if (type.equals(QuestionBank.DROP_DOWN)){
+            return ReadDropDown.loadQuestions(file);
+        }
+        if (type.equals(QuestionBank.FILL_IN_THE_GAP)){
+            return ReadFillInTheGap.loadQuestions(file);
+        }
+        throw new IOException("Unknown type "+type+" of test "+fileName);
+    }
+
+    /**
+     * Writes a bank with the given tests.
+     *
+     * @param types The type of each test, by test number
+     * @param questions The questions of each test, by test number
+     * @param output The stream the bank is written to, left open
+     */
+    public void write(TreeMap<Integer, String> types, TreeMap<Integer, List<? extends Question>> questions, OutputStream output) throws IOException {
+        strings.clear();
+        stringIds.clear();
+
+        //Records first, they fill the string table
+        ByteArrayOutputStream recordBytes=new ByteArrayOutputStream();
+        DataOutputStream records=new DataOutputStream(recordBytes);
+        ArrayList<Integer> recordOffsets=new ArrayList<>();
+        for (List<? extends Question> test: questions.values()){
+            for (Question question: test){
+                recordOffsets.add(records.size());
+                writeRecord(records,question);
+            }
+        }
+
+        ByteArrayOutputStream stringBytes=new ByteArrayOutputStream();
+        DataOutputStream stringData=new DataOutputStream(stringBytes);
+        int[] stringOffsets=new int[strings.size()];
+        for (int i=0;i<strings.size();i++){
+            stringOffsets[i]=stringData.size();
+            writeString(stringData,strings.get(i));
+        }
+
+        DataOutputStream out=new DataOutputStream(output);
+        out.writeInt(CompiledQuestions.MAGIC);
+        out.writeInt(CompiledQuestions.VERSION);
+
+        out.writeInt(questions.size());
+        int firstQuestion=0;
+        for (Map.Entry<Integer, List<? extends Question>> test: questions.entrySet()){
+            out.writeInt(test.getKey());
+            out.writeByte(typeTag(types.get(test.getKey())));
+            out.writeInt(firstQuestion);
+            out.writeInt(test.getValue().size());
+            firstQuestion+=test.getValue().size();
+        }
+
+        out.writeInt(recordOffsets.size());
+        for (int offset: recordOffsets){
+            out.writeInt(offset);
+        }
+
+        out.writeInt(stringOffsets.length);
+        for (int offset: stringOffsets){
+            out.writeInt(offset);
+        }
+        out.writeInt(stringData.size());
+        stringBytes.writeTo(out);
+
+        recordBytes.writeTo(out);
+        out.flush();
+    }
+
+    private void writeRecord(DataOutputStream out, Question question) throws IOException {
+        if (question instanceof MultipleChoiceQuestion){
+            MultipleChoiceQuestion multipleChoice=(MultipleChoiceQuestion) question;
+            out.writeByte(CompiledQuestions.MULTIPLE_CHOICE);
+            out.writeInt(stringId(multipleChoice.getQuestion()));
+            out.writeInt(stringId(multipleChoice.getOptionA()));
+            out.writeInt(stringId(multipleChoice.getOptionB()));
+            out.writeInt(stringId(multipleChoice.getOptionC()));
+            out.writeInt(stringId(multipleChoice.getOptionD()));
+            out.writeInt(stringId(multipleChoice.getCorrectAnswer()));
+        }else if (question instanceof DropDownQuestion){
+            DropDownQuestion dropDown=(DropDownQuestion) question;
+            out.writeByte(CompiledQuestions.DROP_DOWN);
+            out.writeInt(stringId(dropDown.getQuestion()));
+            writeStrings(out,dropDown.getOptions());
+            writeStrings(out,dropDown.getCorrectAnswers());
+        }else if (question instanceof FillInTheGapQuestion){
+            FillInTheGapQuestion fillInTheGap=(FillInTheGapQuestion) question;
+            out.writeByte(CompiledQuestions.FILL_IN_THE_GAP);
+            out.writeInt(stringId(fillInTheGap.getQuestion()));
+            writeStrings(out,fillInTheGap.getCorrectAnswers());
+        }else{
+            throw new IOException("Questions of type "+question.getClass().getSimpleName()+" can not be compiled");
+        }
+    }
+
+    //Writes a count followed by the ids of the strings
+    private void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        if (values.size()>Short.MAX_VALUE){
+            throw new IOException("Too many blanks or options for the bank format: "+values.size());
+        }
+        out.writeShort(values.size());
+        for (String value: values){
+            out.writeInt(stringId(value));
+        }
+    }
+
+    private int stringId(String value) {
+        Integer id=stringIds.get(value);
+        if (id==null){
+            id=strings.size();
+            strings.add(value);
+            stringIds.put(value,id);
+        }
+        return id;
+    }
+
+    private static byte typeTag(String type) throws IOException {
+        if (type.equals(QuestionBank.MULTIPLE_CHOICE)){
+            return CompiledQuestions.MULTIPLE_CHOICE;
+        }
+        if (type.equals(QuestionBank.DROP_DOWN)){
+            return CompiledQuestions.DROP_DOWN;
+        }
+        if (type.equals(QuestionBank.FILL_IN_THE_GAP)){
+            return CompiledQuestions.FILL_IN_THE_GAP;
+        }
+        throw new IOException("Unknown type of test "+type);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes=value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length>0xFFFF){
+            throw new IOException("String too long for the bank format: "+value.substring(0,32)+"...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
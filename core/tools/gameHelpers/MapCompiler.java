@@ -0,0 +1,494 @@
+package gameHelpers;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class MapCompiler {
+
+    /**
+     * Compiles a TMX map and its external TSX tilesets into the binary map format read by BinaryMapLoader.
+     * It runs at build time from the compileMap Gradle task, from the tools source set so it is not shipped with
+     * the game, and only needs the JDK, so it never touches libGDX. The constants of the format are in MapFormat.
+     *
+     * The XML and CSV are parsed here once, and everything the game would work out while loading is
+     * stored already resolved, big-endian:
+     *  - Header: MAGIC, VERSION, width, height, tile width and tile height of the map.
+     *  - Images: the atlas pages with the tiles of the map, as paths relative to the compiled map.
+     *  - Tiles: only the tiles the map uses, each with its gid, page, region and offset already resolved.
+     *  - Tile layers: name, properties, visibility, opacity and one packed 16-bit cell per tile, rows
+     *    bottom to top like the cells of a CompactTileLayer. A cell holds the flip bits in its three high
+     *    bits and, in the rest, 0 for an empty tile or the position of its tile in the tile table plus one.
+     *  - Collision: the tiles of the collision layers packed in a bitset, in the format of CollisionGrid.
+     *    Collision layers are only stored here, they are never drawn.
+     *  - Object layers: name, properties and rectangle objects, with y already flipped to the map
+     *    coordinates of libGDX. The trigger table of the map is the objects of its trigger layer.
+     * Strings are stored as an unsigned short length followed by their UTF-8 bytes.
+     *
+     * The tilesets are not shipped whole: the tiles the map uses are cut out of them and packed into
+     * atlas pages next to the compiled map, so the game decodes and uploads only those. Each tile is
+     * extruded EXTRUDE pixels on every side and separated by PADDING pixels, so filtering and rounding
+     * never sample its neighbours. Most maps fit in a single page, which is a single texture bind.
+     *
+     * @param tiles The tiles used by the map, keyed by gid without flip bits
+     * @param images The paths of the tileset images, relative to the TMX file, and then of the atlas pages
+     */
+    //Pixels each tile is extruded and pixels between the extruded tiles in the atlas pages
+    private static final int EXTRUDE=1;
+    private static final int PADDING=1;
+    private static final int MAX_PAGE_SIZE=2048;
+
+    private static final String COLLISION_ROLE="collision";
+    //Child elements of the objects that are not rectangles
+    private static final String[] SHAPES={"ellipse","point","polygon","polyline","text"};
+
+    private final TreeMap<Integer, int[]> tiles=new TreeMap<>();
+    private final ArrayList<String> images=new ArrayList<>();
+
+    /**
+     * Compiles the map given as first argument into the file given as second argument.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length!=2){
+            System.err.println("Usage: MapCompiler <map.tmx> <output>");
+            System.exit(1);
+        }
+        long start=System.nanoTime();
+        File output=new File(args[1]);
+        new MapCompiler().compile(new File(args[0]),output);
+        System.out.println("Compiled "+args[0]+" into "+output.getPath()+" ("+output.length()/1024+" KB) in "
+                +(System.nanoTime()-start)/1000000+" ms");
+    }
+
+    /**
+     * Compiles a TMX map.
+     *
+     * @param tmx The TMX file, its tilesets are resolved relative to it
+     * @param output The binary map file to write
+     * @throws IOException If a file can not be read or written, or the map uses something the format does not support
+     */
+    public void compile(File tmx, File output) throws IOException {
+        Element map=parse(tmx);
+        if (!"orthogonal".equals(map.getAttribute("orientation"))){
+            throw new IOException(tmx+": only orthogonal maps are supported");
+        }
+        if ("1".equals(map.getAttribute("infinite"))){
+            throw new IOException(tmx+": infinite maps are not supported");
+        }
+        int width=intAttribute(map,"width",0);
+        int height=intAttribute(map,"height",0);
+        int tileWidth=intAttribute(map,"tilewidth",0);
+        int tileHeight=intAttribute(map,"tileheight",0);
+
+        ArrayList<Tileset> tilesets=new ArrayList<>();
+        for (Element element: children(map,"tileset")){
+            tilesets.add(readTileset(tmx.getParentFile(),element));
+        }
+
+        //Read the tile layers, packing the collision layers apart
+        ArrayList<Element> tileLayers=new ArrayList<>();
+        ArrayList<int[]> layerCells=new ArrayList<>();
+        long[] collision=new long[(width*height+63)/64];
+        for (Element layer: children(map,"layer")){
+            int[] cells=readCells(layer,width,height);
+            if (COLLISION_ROLE.equalsIgnoreCase(properties(layer).get("role"))){
+                for (int i=0;i<cells.length;i++){
+                    if (cells[i]!=0){
+                        collision[i>>>6]|=1L<<(i&63);
+                    }
+                }
+                continue;
+            }
+            tileLayers.add(layer);
+            layerCells.add(cells);
+            for (int cell: cells){
+                if (cell!=0){
+                    resolveTile(cell&~MapFormat.FLIP_MASK,tilesets);
+                }
+            }
+        }
+
+        File folder=output.getAbsoluteFile().getParentFile();
+        if (!folder.isDirectory() && !folder.mkdirs()){
+            throw new IOException("Could not create "+folder);
+        }
+        packTiles(tmx.getParentFile(),output);
+
+        try (DataOutputStream out=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)))){
+            out.writeInt(MapFormat.MAGIC);
+            out.writeInt(MapFormat.VERSION);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(tileWidth);
+            out.writeInt(tileHeight);
+
+            out.writeInt(images.size());
+            for (String image: images){
+                writeString(out,image);
+            }
+
+            if (tiles.size()>MapFormat.CELL_TILE_MASK){
+                throw new IOException(tmx+" uses "+tiles.size()+" tiles, a packed cell holds "+MapFormat.CELL_TILE_MASK);
+            }
+            HashMap<Integer, Integer> indices=new HashMap<>();
+            out.writeInt(tiles.size());
+            for (Map.Entry<Integer, int[]> tile: tiles.entrySet()){
+                indices.put(tile.getKey(),indices.size()+1);
+                out.writeInt(tile.getKey());
+                for (int value: tile.getValue()){
+                    out.writeShort(value);
+                }
+            }
+
+            out.writeInt(tileLayers.size());
+            for (int i=0;i<tileLayers.size();i++){
+                Element layer=tileLayers.get(i);
+                writeString(out,layer.getAttribute("name"));
+                writeProperties(out,layer);
+                out.writeBoolean(!"0".equals(layer.getAttribute("visible")));
+                out.writeFloat(floatAttribute(layer,"opacity",1));
+                for (int cell: layerCells.get(i)){
+                    if (cell==0){
+                        out.writeShort(0);
+                    }else{
+                        out.writeShort(((cell&MapFormat.FLIP_MASK)>>>MapFormat.CELL_FLIP_SHIFT)|indices.get(cell&~MapFormat.FLIP_MASK));
+                    }
+                }
+            }
+
+            out.writeInt(collision.length);
+            for (long bits: collision){
+                out.writeLong(bits);
+            }
+
+            ArrayList<Element> objectLayers=children(map,"objectgroup");
+            out.writeInt(objectLayers.size());
+            for (Element layer: objectLayers){
+                writeString(out,layer.getAttribute("name"));
+                writeProperties(out,layer);
+                ArrayList<Element> objects=children(layer,"object");
+                out.writeInt(objects.size());
+                for (Element object: objects){
+                    for (String shape: SHAPES){
+                        if (!children(object,shape).isEmpty()){
+                            throw new IOException(tmx+": object "+object.getAttribute("id")+" is not a rectangle");
+                        }
+                    }
+                    float x=floatAttribute(object,"x",0);
+                    float y=floatAttribute(object,"y",0);
+                    float objectWidth=floatAttribute(object,"width",0);
+                    float objectHeight=floatAttribute(object,"height",0);
+                    writeString(out,object.getAttribute("name"));
+                    out.writeFloat(x);
+                    //Tiled counts y from the top of the map, libGDX from the bottom
+                    out.writeFloat(height*tileHeight-y-objectHeight);
+                    out.writeFloat(objectWidth);
+                    out.writeFloat(objectHeight);
+                    writeProperties(out,object);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads an external tileset. Tilesets with tile properties or animations are rejected,
+     * the format only stores plain regions.
+     */
+    private Tileset readTileset(File folder, Element reference) throws IOException {
+        Tileset tileset=new Tileset();
+        tileset.firstGid=intAttribute(reference,"firstgid",1);
+        File tsx=new File(folder,reference.getAttribute("source"));
+        Element element=parse(tsx);
+        if (!children(element,"tile").isEmpty()){
+            throw new IOException(tsx+": tile properties and animations are not supported");
+        }
+        tileset.tileWidth=intAttribute(element,"tilewidth",0);
+        tileset.tileHeight=intAttribute(element,"tileheight",0);
+        tileset.margin=intAttribute(element,"margin",0);
+        tileset.spacing=intAttribute(element,"spacing",0);
+        for (Element offset: children(element,"tileoffset")){
+            tileset.offsetX=intAttribute(offset,"x",0);
+            tileset.offsetY=intAttribute(offset,"y",0);
+        }
+        Element image=children(element,"image").get(0);
+        tileset.imageWidth=intAttribute(image,"width",0);
+        //Paths are stored relative to the map, with forward slashes
+        String source=new File(tsx.getParentFile(),image.getAttribute("source")).getPath();
+        String base=folder.getPath()+File.separator;
+        tileset.image=(source.startsWith(base) ? source.substring(base.length()) : source).replace(File.separatorChar,'/');
+        tileset.columns=Math.max(1,(tileset.imageWidth-tileset.tileWidth-tileset.margin)/(tileset.tileWidth+tileset.spacing)+1);
+        return tileset;
+    }
+
+    /**
+     * Resolves the region of a gid, the first time the map uses it.
+     * The region is placed like TmxMapLoader places it, so both loaders draw the same map.
+     */
+    private void resolveTile(int gid, ArrayList<Tileset> tilesets) throws IOException {
+        if (tiles.containsKey(gid)){
+            return;
+        }
+        Tileset owner=null;
+        for (Tileset tileset: tilesets){
+            if (tileset.firstGid<=gid && (owner==null || tileset.firstGid>owner.firstGid)){
+                owner=tileset;
+            }
+        }
+        if (owner==null){
+            throw new IOException("No tileset contains the tile "+gid);
+        }
+        int image=images.indexOf(owner.image);
+        if (image<0){
+            images.add(owner.image);
+            image=images.size()-1;
+        }
+        int local=gid-owner.firstGid;
+        int x=owner.margin+(local%owner.columns)*(owner.tileWidth+owner.spacing);
+        int y=owner.margin+(local/owner.columns)*(owner.tileHeight+owner.spacing);
+        tiles.put(gid,new int[]{image,x,y,owner.tileWidth,owner.tileHeight,owner.offsetX,-owner.offsetY});
+    }
+
+    /**
+     * Cuts the tiles of the map out of their tilesets and packs them into atlas pages written next to the
+     * output, named after it. The tiles and images are changed to point to the pages.
+     */
+    private void packTiles(File folder, File output) throws IOException {
+        //Every tile gets a cell of the same size, the biggest tile with its extrusion and padding
+        int cellWidth=0;
+        int cellHeight=0;
+        for (int[] tile: tiles.values()){
+            cellWidth=Math.max(cellWidth,tile[3]+2*EXTRUDE+PADDING);
+            cellHeight=Math.max(cellHeight,tile[4]+2*EXTRUDE+PADDING);
+        }
+        int perPage=(MAX_PAGE_SIZE/cellWidth)*(MAX_PAGE_SIZE/cellHeight);
+
+        BufferedImage[] sources=new BufferedImage[images.size()];
+        long sourcePixels=0;
+        for (int i=0;i<sources.length;i++){
+            sources[i]=ImageIO.read(new File(folder,images.get(i)));
+            if (sources[i]==null){
+                throw new IOException("Could not read the tileset image "+images.get(i));
+            }
+            sourcePixels+=(long) sources[i].getWidth()*sources[i].getHeight();
+        }
+
+        String name=output.getName();
+        if (name.lastIndexOf('.')>0){
+            name=name.substring(0,name.lastIndexOf('.'));
+        }
+        ArrayList<String> pages=new ArrayList<>();
+        long pagePixels=0;
+        BufferedImage page=null;
+        int columns=0;
+        int index=0;
+        for (int[] tile: tiles.values()){
+            int slot=index%perPage;
+            if (slot==0){
+                if (page!=null){
+                    pagePixels+=writePage(page,output,name,pages);
+                }
+                //The last page is only as big as its tiles need
+                int[] size=pageSize(Math.min(perPage,tiles.size()-index),cellWidth,cellHeight);
+                page=new BufferedImage(size[0],size[1],BufferedImage.TYPE_INT_ARGB);
+                columns=size[0]/cellWidth;
+            }
+            int x=(slot%columns)*cellWidth+EXTRUDE;
+            int y=(slot/columns)*cellHeight+EXTRUDE;
+            extrude(sources[tile[0]],tile[1],tile[2],tile[3],tile[4],page,x,y);
+            tile[0]=pages.size();
+            tile[1]=x;
+            tile[2]=y;
+            index++;
+        }
+        if (page!=null){
+            pagePixels+=writePage(page,output,name,pages);
+        }
+        System.out.println("Packed "+tiles.size()+" tiles of "+images.size()+" tilesets ("+sourcePixels/1024+"K pixels) into "
+                +pages.size()+" pages ("+pagePixels/1024+"K pixels)");
+        images.clear();
+        images.addAll(pages);
+    }
+
+    //Returns the smallest power of two page that holds the given number of cells, as width and height
+    private static int[] pageSize(int cells, int cellWidth, int cellHeight) {
+        int[] best=null;
+        for (int width=cellWidth;width<=MAX_PAGE_SIZE*2;width*=2){
+            int pageWidth=Math.min(MAX_PAGE_SIZE,powerOfTwo(width));
+            int columns=pageWidth/cellWidth;
+            int pageHeight=powerOfTwo(((cells+columns-1)/columns)*cellHeight);
+            if (pageHeight>MAX_PAGE_SIZE){
+                continue;
+            }
+            //Prefer the smallest page, and the squarest of two of the same size
+            if (best==null || (long) pageWidth*pageHeight<(long) best[0]*best[1]
+                    || ((long) pageWidth*pageHeight==(long) best[0]*best[1] && Math.abs(pageWidth-pageHeight)<Math.abs(best[0]-best[1]))){
+                best=new int[]{pageWidth,pageHeight};
+            }
+        }
+        return best;
+    }
+
+    private static int powerOfTwo(int value) {
+        int power=1;
+        while (power<value){
+            power*=2;
+        }
+        return power;
+    }
+
+    /**
+     * Copies a tile to a page, repeating its edge pixels EXTRUDE pixels around it.
+     */
+    private static void extrude(BufferedImage source, int sourceX, int sourceY, int width, int height, BufferedImage page, int x, int y) {
+        for (int dy=-EXTRUDE;dy<height+EXTRUDE;dy++){
+            int row=sourceY+Math.max(0,Math.min(height-1,dy));
+            for (int dx=-EXTRUDE;dx<width+EXTRUDE;dx++){
+                int column=sourceX+Math.max(0,Math.min(width-1,dx));
+                page.setRGB(x+dx,y+dy,source.getRGB(column,row));
+            }
+        }
+    }
+
+    //Writes a page next to the output and returns its number of pixels
+    private static long writePage(BufferedImage page, File output, String name, ArrayList<String> pages) throws IOException {
+        String pageName=name+"-tiles"+pages.size()+".png";
+        ImageIO.write(page,"png",new File(output.getAbsoluteFile().getParentFile(),pageName));
+        pages.add(pageName);
+        return (long) page.getWidth()*page.getHeight();
+    }
+
+    /**
+     * Reads the CSV data of a tile layer, turning the rows upside down so row 0 is the bottom of the map.
+     */
+    private static int[] readCells(Element layer, int width, int height) throws IOException {
+        Element data=children(layer,"data").get(0);
+        if (!"csv".equals(data.getAttribute("encoding"))){
+            throw new IOException("Layer "+layer.getAttribute("name")+": only CSV layers are supported");
+        }
+        String[] values=data.getTextContent().trim().split("\\s*,\\s*");
+        if (values.length!=width*height){
+            throw new IOException("Layer "+layer.getAttribute("name")+" has "+values.length+" cells instead of "+width*height);
+        }
+        int[] cells=new int[width*height];
+        for (int row=0;row<height;row++){
+            int y=height-1-row;
+            for (int x=0;x<width;x++){
+                //Gids with flip bits do not fit in an int, parse them as longs
+                cells[x+y*width]=(int) Long.parseLong(values[x+row*width]);
+            }
+        }
+        return cells;
+    }
+
+    //Returns the custom properties of an element, by name
+    private static LinkedHashMap<String, String> properties(Element element) {
+        LinkedHashMap<String, String> properties=new LinkedHashMap<>();
+        for (Element group: children(element,"properties")){
+            for (Element property: children(group,"property")){
+                properties.put(property.getAttribute("name"),property.getAttribute("value"));
+            }
+        }
+        return properties;
+    }
+
+    //Writes the custom properties of an element with their type tags
+    private static void writeProperties(DataOutputStream out, Element element) throws IOException {
+        ArrayList<Element> properties=new ArrayList<>();
+        for (Element group: children(element,"properties")){
+            properties.addAll(children(group,"property"));
+        }
+        out.writeInt(properties.size());
+        for (Element property: properties){
+            String type=property.getAttribute("type");
+            String value=property.getAttribute("value");
+            writeString(out,property.getAttribute("name"));
+            if (type.equals("int")){
+                out.writeByte(MapFormat.INT);
+                out.writeInt(Integer.parseInt(value));
+            }else if (type.equals("float")){
+                out.writeByte(MapFormat.FLOAT);
+                out.writeFloat(Float.parseFloat(value));
+            }else if (type.equals("bool")){
+                out.writeByte(MapFormat.BOOLEAN);
+                out.writeBoolean(Boolean.parseBoolean(value));
+            }else{
+                //Strings, and multiline strings which Tiled keeps as the text of the element
+                out.writeByte(MapFormat.STRING);
+                writeString(out,property.hasAttribute("value") ? value : property.getTextContent());
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes=value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length>0xFFFF){
+            throw new IOException("String too long for the map format: "+value.substring(0,32)+"...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Element parse(File file) throws IOException {
+        try {
+            Document document=DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+            return document.getDocumentElement();
+        } catch (Exception e) {
+            throw new IOException("Could not parse "+file,e);
+        }
+    }
+
+    //Returns the child elements with the given tag, in document order
+    private static ArrayList<Element> children(Element parent, String tag) {
+        ArrayList<Element> children=new ArrayList<>();
+        NodeList nodes=parent.getChildNodes();
+        for (int i=0;i<nodes.getLength();i++){
+            Node node=nodes.item(i);
+            if (node.getNodeType()==Node.ELEMENT_NODE && node.getNodeName().equals(tag)){
+                children.add((Element) node);
+            }
+        }
+        return children;
+    }
+
+    private static int intAttribute(Element element, String name, int defaultValue) {
+        String value=element.getAttribute(name);
+        return value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static float floatAttribute(Element element, String name, float defaultValue) {
+        String value=element.getAttribute(name);
+        return value.isEmpty() ? defaultValue : Float.parseFloat(value);
+    }
+
+    /**
+     * The attributes of a tileset needed to resolve the regions of its tiles.
+     */
+    private static class Tileset {
+        private int firstGid;
+        private int tileWidth;
+        private int tileHeight;
+        private int margin;
+        private int spacing;
+        private int offsetX;
+        private int offsetY;
+        private int columns;
+        private int imageWidth;
+        private String image;
+    }
+}